@@ -1,6 +1,7 @@
 package org.poo.AccountsSuite;
 
 import org.poo.CardsSuite.Card;
+import org.poo.User;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,7 +27,8 @@ public interface Account {
     String getEmail();
 
     /**
-     * Retrieves the current balance of the account.
+     * Retrieves the current balance of the account. Reading it must not change the
+     * account: netWorth reads the balances of many accounts from worker threads.
      *
      * @return the balance of the account.
      */
@@ -67,6 +69,14 @@ public interface Account {
      */
     ArrayList<Card> getCards();
 
+    /**
+     * Finds one of the account's cards by its number, without copying the card list.
+     *
+     * @param cardNumber the card number, compared ignoring surrounding whitespace.
+     * @return the matching card, or null if the account has no such card.
+     */
+    Card findCard(String cardNumber);
+
     /**
      * Sets the balance of the account.
      *
@@ -106,4 +116,19 @@ public interface Account {
      * @return the minimum balance required.
      */
     double getMinBalance();
+
+    /**
+     * Sets the user who owns the account and its cards. Changes to the balance or
+     * the cards mark the owner as changed, so printUsers rebuilds its output.
+     *
+     * @param owner the owner of the account.
+     */
+    void setOwner(User owner);
+
+    /**
+     * Retrieves the user who owns the account.
+     *
+     * @return the owner of the account, or null if it was not added to a user.
+     */
+    User getOwner();
 }
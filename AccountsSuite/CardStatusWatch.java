@@ -0,0 +1,159 @@
+package org.poo.AccountsSuite;
+
+import org.poo.CardsSuite.Card;
+import org.poo.MagicNumbers;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the accounts whose balance is close to (or below) their minimum
+ * balance, and optionally updates their cards as soon as that changes.
+ *
+ * Every change of an account's balance, minimum balance or owner places the account in
+ * one of three bands, in O(1): at or below the minimum, at most
+ * {@value #NEAR_MARGIN} above it, or safe. The margin is compared the way
+ * checkBalanceStatus compares it, so an account exactly {@value #NEAR_MARGIN} above
+ * its minimum is near it for both. The accounts in the first two bands form the
+ * "near minimum" bucket, so checkAllCardStatuses only visits those accounts instead of
+ * every account of the bank.
+ *
+ * With lazy interest (see {@link InterestAccrual}) a savings balance also moves between
+ * postings, without any change to hook. Those accounts are kept in a separate set and
+ * placed in their band again whenever the bucket is read.
+ *
+ * With {@code -Dpoo.cards.watch=true} the cards also follow the band right away: when
+ * an account reaches its minimum its active cards are frozen (with the same transaction
+ * checkCardStatus records), when it gets near it its active cards get a warning, and
+ * when it is safe again the warnings are lifted. Frozen cards stay frozen. The watch is
+ * off by default, since cards then only change on checkCardStatus, as the checker
+ * expects.
+ */
+public final class CardStatusWatch {
+    public static final boolean ENABLED = Boolean.getBoolean("poo.cards.watch");
+    public static final double NEAR_MARGIN = MagicNumbers.MN30;
+
+    /**
+     * The band of an account's balance relative to its minimum balance.
+     */
+    public enum Band {
+        BELOW_MINIMUM,
+        NEAR_MINIMUM,
+        SAFE
+    }
+
+    private static final String FROZEN_DESCRIPTION =
+            "You have reached the minimum amount of funds, the card will be frozen";
+
+    private static final Map<Account, Band> NEAR = new LinkedHashMap<>();
+    private static final Set<Account> DRIFTING = new LinkedHashSet<>();
+    private static int now;
+
+    private CardStatusWatch() {
+    }
+
+    /**
+     * Computes the band of a balance.
+     *
+     * @param balance the balance
+     * @param minBalance the minimum balance
+     * @return the band
+     */
+    public static Band band(final double balance, final double minBalance) {
+        if (balance <= minBalance) {
+            return Band.BELOW_MINIMUM;
+        }
+        if (balance - minBalance <= NEAR_MARGIN) {
+            return Band.NEAR_MINIMUM;
+        }
+        return Band.SAFE;
+    }
+
+    /**
+     * Re-evaluates the band of an account after its balance or minimum balance changed,
+     * moving it in or out of the near minimum bucket and, when the watch is on, updating
+     * its cards if the band changed. Accounts without an owner (removed from their
+     * user) are no longer tracked.
+     *
+     * @param account the account
+     */
+    public static void balanceChanged(final Account account) {
+        if (account.getOwner() == null) {
+            NEAR.remove(account);
+            DRIFTING.remove(account);
+            return;
+        }
+        if (InterestAccrual.LAZY && account instanceof SavingsAccount) {
+            DRIFTING.add(account);
+        }
+        Band band = band(account.getBalance(), account.getMinBalance());
+        Band previous = band == Band.SAFE ? NEAR.remove(account) : NEAR.put(account, band);
+        if (previous == null) {
+            previous = Band.SAFE;
+        }
+        if (ENABLED && band != previous) {
+            updateCards(account, band);
+        }
+    }
+
+    /**
+     * @return the accounts at or near their minimum balance, in the order they got there
+     */
+    public static List<Account> nearMinimum() {
+        for (Account account : new ArrayList<>(DRIFTING)) {
+            balanceChanged(account);
+        }
+        return new ArrayList<>(NEAR.keySet());
+    }
+
+    /**
+     * Moves the clock forward to the timestamp of the command being run, which is the
+     * timestamp of the transactions recorded by the watch.
+     *
+     * @param timestamp the timestamp of the command
+     */
+    public static void advanceTo(final int timestamp) {
+        now = timestamp;
+    }
+
+    /**
+     * Forgets every account, for a new bank.
+     */
+    public static void clear() {
+        NEAR.clear();
+        DRIFTING.clear();
+        now = 0;
+    }
+
+    private static void updateCards(final Account account, final Band band) {
+        User owner = account.getOwner();
+        for (Card card : account.getCards()) {
+            String status = card.getStatus();
+            switch (band) {
+                case BELOW_MINIMUM -> {
+                    if (!"frozen".equals(status)) {
+                        owner.addTransaction(TransactionFactory.cardStatus(now,
+                                FROZEN_DESCRIPTION));
+                        card.setStatus("frozen");
+                    }
+                }
+                case NEAR_MINIMUM -> {
+                    if ("active".equals(status)) {
+                        card.setStatus("warning");
+                    }
+                }
+                default -> {
+                    if ("warning".equals(status)) {
+                        card.setStatus("active");
+                    }
+                }
+            }
+        }
+    }
+}
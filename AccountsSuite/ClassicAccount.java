@@ -2,7 +2,9 @@ package org.poo.AccountsSuite;
 
 import org.poo.CardsSuite.Card;
 import org.poo.CardsSuite.CardFactory;
+import org.poo.EventBusSuite.DomainEventBus;
 import org.poo.MagicNumbers;
+import org.poo.User;
 import org.poo.utils.Utils;
 
 import java.util.ArrayList;
@@ -22,6 +24,7 @@ public class ClassicAccount implements Account {
     private String currency;
     private String accountType;
     private List<Card> cards;
+    private User owner;
     private String alias;
 
     /**
@@ -73,6 +76,17 @@ public class ClassicAccount implements Account {
         return new ArrayList<>(cards);
     }
 
+    @Override
+    public Card findCard(final String cardNumber) {
+        String number = cardNumber.trim();
+        for (Card card : cards) {
+            if (card.getCardNumber().trim().equals(number)) {
+                return card;
+            }
+        }
+        return null;
+    }
+
     /**
      * Sets a new minimum balance for the account.
      *
@@ -81,6 +95,7 @@ public class ClassicAccount implements Account {
     public void setMinimumBalance(final double minimumBalance) {
         if (minimumBalance >= 0) {
             this.minBalance = minimumBalance;
+            CardStatusWatch.balanceChanged(this);
         }
     }
 
@@ -92,6 +107,10 @@ public class ClassicAccount implements Account {
     @Override
     public void setCards(final List<Card> newCards) {
         this.cards = newCards;
+        for (Card card : newCards) {
+            card.setOwner(owner);
+        }
+        markOwnerChanged();
     }
 
     /**
@@ -121,7 +140,11 @@ public class ClassicAccount implements Account {
      */
     @Override
     public void setBalance(final double balance) {
+        double oldBalance = this.balance;
         this.balance = balance;
+        markOwnerChanged();
+        DomainEventBus.balanceChanged(this, oldBalance, balance);
+        CardStatusWatch.balanceChanged(this);
     }
 
     /**
@@ -164,7 +187,10 @@ public class ClassicAccount implements Account {
     public void addCard(final String cardType) {
         try {
             Card newCard = CardFactory.createCard(cardType);
+            newCard.setOwner(owner);
             cards.add(newCard);
+            markOwnerChanged();
+            DomainEventBus.cardAdded(this, newCard.getCardNumber());
         } catch (IllegalArgumentException e) {
             System.out.println(e.getMessage());
         }
@@ -197,4 +223,34 @@ public class ClassicAccount implements Account {
         return minBalance;
     }
 
+    /**
+     * Sets the user who owns the account and its cards.
+     *
+     * @param owner the owner of the account.
+     */
+    @Override
+    public void setOwner(final User owner) {
+        this.owner = owner;
+        for (Card card : cards) {
+            card.setOwner(owner);
+        }
+        markOwnerChanged();
+        CardStatusWatch.balanceChanged(this);
+    }
+
+    /**
+     * Retrieves the user who owns the account.
+     *
+     * @return the owner of the account, or null if it was not added to a user.
+     */
+    @Override
+    public User getOwner() {
+        return owner;
+    }
+
+    private void markOwnerChanged() {
+        if (owner != null) {
+            owner.markChanged();
+        }
+    }
 }
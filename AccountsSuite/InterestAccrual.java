@@ -0,0 +1,62 @@
+package org.poo.AccountsSuite;
+
+/**
+ * Settings and clock for lazy, time-based interest accrual on savings accounts.
+ *
+ * Accrual is switched on with {@code -Dpoo.interest.lazy=true}; by default interest is
+ * only paid when an addInterest command compounds it, as the checker expects. When it
+ * is on, a savings account keeps its balance together with the timestamp it was last
+ * brought up to date. Reading the balance adds the interest for the elapsed time
+ * without changing the account; the interest is posted only when the balance or the
+ * rate changes, or when addInterest / addInterestAll pays it out. The interest rate applies once every
+ * {@code -Dpoo.interest.period} timestamps (default {@value #DEFAULT_PERIOD}), so no
+ * periodic pass over all accounts is needed. The clock is advanced by BankTeller to the
+ * timestamp of every command it runs.
+ */
+public final class InterestAccrual {
+    public static final boolean LAZY = Boolean.getBoolean("poo.interest.lazy");
+    public static final int DEFAULT_PERIOD = 1;
+    public static final int PERIOD = Math.max(1,
+            Integer.getInteger("poo.interest.period", DEFAULT_PERIOD));
+
+    private static int now;
+
+    private InterestAccrual() {
+    }
+
+    /**
+     * Sets the clock back to 0, for a new bank.
+     */
+    public static void reset() {
+        now = 0;
+    }
+
+    /**
+     * Moves the clock forward to the given timestamp. The clock never goes back.
+     *
+     * @param timestamp the timestamp of the command being run
+     */
+    public static void advanceTo(final int timestamp) {
+        if (timestamp > now) {
+            now = timestamp;
+        }
+    }
+
+    /**
+     * @return the current timestamp
+     */
+    public static int now() {
+        return now;
+    }
+
+    /**
+     * Computes the factor a balance grows by over some time at a given rate.
+     *
+     * @param rate the interest rate for one period
+     * @param elapsed the number of timestamps
+     * @return {@code (1 + rate)^(elapsed / period)}
+     */
+    public static double growth(final double rate, final int elapsed) {
+        return Math.pow(1 + rate, (double) elapsed / PERIOD);
+    }
+}
@@ -2,7 +2,9 @@ package org.poo.AccountsSuite;
 
 import org.poo.CardsSuite.Card;
 import org.poo.CardsSuite.CardFactory;
+import org.poo.EventBusSuite.DomainEventBus;
 import org.poo.MagicNumbers;
+import org.poo.User;
 import org.poo.utils.Utils;
 
 import java.util.ArrayList;
@@ -16,6 +18,10 @@ import java.util.List;
  * The account type is fixed as "savings" and includes methods for card
  * handling, interest rate management,
  * and balance status checking.
+ * When lazy accrual is on (see {@link InterestAccrual}), the balance is kept as of the
+ * last accrual timestamp. Reading the balance includes the interest for the elapsed
+ * time without changing the account; the interest is posted only when the balance is
+ * changed, the interest rate changes or the interest is paid out.
  */
 public class SavingsAccount implements Account {
     private String iban;
@@ -25,7 +31,10 @@ public class SavingsAccount implements Account {
     private String currency;
     private String accountType;
     private List<Card> cards;
+    private User owner;
     private double interestRate;
+    private int lastAccrual;
+    private double unpaidInterest;
     private String alias;
 
     /**
@@ -45,6 +54,7 @@ public class SavingsAccount implements Account {
         this.accountType = "savings";
         this.cards = new ArrayList<>();
         this.interestRate = interestRate;
+        this.lastAccrual = InterestAccrual.now();
         this.alias = null;
     }
 
@@ -77,6 +87,23 @@ public class SavingsAccount implements Account {
         return new ArrayList<>(cards);
     }
 
+    /**
+     * Finds one of the account's cards by its number, without copying the card list.
+     *
+     * @param cardNumber the card number, compared ignoring surrounding whitespace.
+     * @return the matching card, or null if the account has no such card.
+     */
+    @Override
+    public Card findCard(final String cardNumber) {
+        String number = cardNumber.trim();
+        for (Card card : cards) {
+            if (card.getCardNumber().trim().equals(number)) {
+                return card;
+            }
+        }
+        return null;
+    }
+
     /**
      * Sets a new list of cards for the account.
      *
@@ -85,6 +112,10 @@ public class SavingsAccount implements Account {
     @Override
     public void setCards(final List<Card> newCards) {
         this.cards = newCards;
+        for (Card card : newCards) {
+            card.setOwner(owner);
+        }
+        markOwnerChanged();
     }
 
     /**
@@ -95,6 +126,7 @@ public class SavingsAccount implements Account {
     public void setMinimumBalance(final double minimumBalance) {
         if (minimumBalance >= 0) {
             this.minBalance = minimumBalance;
+            CardStatusWatch.balanceChanged(this);
         }
     }
 
@@ -109,13 +141,30 @@ public class SavingsAccount implements Account {
     }
 
     /**
-     * Retrieves the current balance of the account.
+     * Retrieves the current balance of the account. With lazy accrual this includes the
+     * interest accrued since the last posting, but does not post it.
      *
      * @return the balance of the account.
      */
     @Override
     public double getBalance() {
-        return balance;
+        return balance + pendingInterest();
+    }
+
+    /**
+     * Computes the interest accrued since the last posting, without posting it.
+     *
+     * @return the pending interest, 0 when lazy accrual is off
+     */
+    public double pendingInterest() {
+        if (!InterestAccrual.LAZY) {
+            return 0;
+        }
+        int now = InterestAccrual.now();
+        if (now <= lastAccrual) {
+            return 0;
+        }
+        return balance * InterestAccrual.growth(interestRate, now - lastAccrual) - balance;
     }
 
     /**
@@ -125,7 +174,12 @@ public class SavingsAccount implements Account {
      */
     @Override
     public void setBalance(final double balance) {
+        accrueInterest();
+        double oldBalance = this.balance;
         this.balance = balance;
+        markOwnerChanged();
+        DomainEventBus.balanceChanged(this, oldBalance, balance);
+        CardStatusWatch.balanceChanged(this);
     }
 
     /**
@@ -169,7 +223,10 @@ public class SavingsAccount implements Account {
     public void addCard(final String cardType) {
         try {
             Card newCard = CardFactory.createCard(cardType);
+            newCard.setOwner(owner);
             cards.add(newCard);
+            markOwnerChanged();
+            DomainEventBus.cardAdded(this, newCard.getCardNumber());
         } catch (IllegalArgumentException e) {
             System.out.println("Error adding card: " + e.getMessage());
         }
@@ -190,6 +247,7 @@ public class SavingsAccount implements Account {
      * @param interestRate the new interest rate for the savings account.
      */
     public void setInterestRate(final double interestRate) {
+        accrueInterest();
         this.interestRate = interestRate;
     }
 
@@ -201,10 +259,12 @@ public class SavingsAccount implements Account {
      */
     @Override
     public void checkBalanceStatus() {
+        double currentBalance = getBalance();
         for (Card card : cards) {
-            if (minBalance - balance >= MagicNumbers.MN30 && balance > minBalance) {
+            if (minBalance - currentBalance >= MagicNumbers.MN30
+                    && currentBalance > minBalance) {
                 card.setStatus("warning");
-            } else if (balance < minBalance) {
+            } else if (currentBalance < minBalance) {
                 card.setStatus("frozen");
             }
             card.getStatus();
@@ -225,9 +285,72 @@ public class SavingsAccount implements Account {
      * Applies the interest rate to the current balance of the savings account.
      * This method updates the balance by adding the calculated interest,
      * which is determined by multiplying the balance by the interest rate.
+     * With lazy accrual the interest is already part of the balance, so this only
+     * pays out (returns) the interest accrued since the previous call.
+     *
+     * @return the interest added to the balance.
      */
-    public void applyInterest() {
+    public double applyInterest() {
+        if (InterestAccrual.LAZY) {
+            accrueInterest();
+            double paid = unpaidInterest;
+            unpaidInterest = 0;
+            return paid;
+        }
+        double oldBalance = balance;
         balance += balance * interestRate;
+        markOwnerChanged();
+        DomainEventBus.balanceChanged(this, oldBalance, balance);
+        CardStatusWatch.balanceChanged(this);
+        return balance - oldBalance;
+    }
+
+    /**
+     * Posts the interest accrued since the last posting when lazy accrual is on,
+     * compounding it at the current interest rate. Does nothing otherwise. Only the
+     * paths that change the balance or the rate, or pay interest out, call it.
+     */
+    private void accrueInterest() {
+        double accrued = pendingInterest();
+        lastAccrual = Math.max(lastAccrual, InterestAccrual.now());
+        if (accrued != 0) {
+            double oldBalance = balance;
+            balance += accrued;
+            unpaidInterest += accrued;
+            markOwnerChanged();
+            DomainEventBus.balanceChanged(this, oldBalance, balance);
+            CardStatusWatch.balanceChanged(this);
+        }
+    }
+
+    /**
+     * Sets the user who owns the account and its cards.
+     *
+     * @param owner the owner of the account.
+     */
+    @Override
+    public void setOwner(final User owner) {
+        this.owner = owner;
+        for (Card card : cards) {
+            card.setOwner(owner);
+        }
+        markOwnerChanged();
+        CardStatusWatch.balanceChanged(this);
+    }
+
+    /**
+     * Retrieves the user who owns the account.
+     *
+     * @return the owner of the account, or null if it was not added to a user.
+     */
+    @Override
+    public User getOwner() {
+        return owner;
     }
 
+    private void markOwnerChanged() {
+        if (owner != null) {
+            owner.markChanged();
+        }
+    }
 }
@@ -8,8 +8,6 @@ import org.poo.fileio.CommandInput;
 
 import java.util.List;
 
-import static org.poo.TransactionsSuite.TransactionTag.ACCT_CREATED;
-
 /**
  * Represents a command to add a new account to a user in the banking system.
  * This command validates the provided account details, creates the account,
@@ -64,7 +62,7 @@ public class AddAccount implements BankCommand {
                 }
 
                 user.addAccount(newAccount);
-                user.addTransaction(TransactionFactory.createTransaction(ACCT_CREATED, timestamp));
+                user.addTransaction(TransactionFactory.accountCreated(timestamp));
                 return;
             }
         }
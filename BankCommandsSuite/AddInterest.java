@@ -5,7 +5,6 @@ import org.poo.AccountsSuite.SavingsAccount;
 import org.poo.MagicNumbers;
 import org.poo.OutputBuilder;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.User;
 import org.poo.fileio.CommandInput;
 
@@ -47,16 +46,11 @@ public class AddInterest implements BankCommand {
                         && account.getAlias().equalsIgnoreCase(accountIdentifier))) {
 
                     if ("savings".equals(account.getAccountType())) {
-                        double oldBalance = account.getBalance();
-                        ((SavingsAccount) account).applyInterest();
-                        double newBalance = account.getBalance();
-
-                        double interestAmount = newBalance - oldBalance;
+                        double interestAmount = ((SavingsAccount) account).applyInterest();
                         interestAmount = Math.round(interestAmount
                                 * MagicNumbers.MND100) / MagicNumbers.MND100;
 
-                        user.addTransaction(TransactionFactory.createTransaction(
-                                TransactionTag.INTEREST,
+                        user.addTransaction(TransactionFactory.interest(
                                 interestAmount,
                                 account.getCurrency(),
                                 timestamp
@@ -0,0 +1,127 @@
+package org.poo.BankCommandsSuite;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.AccountsSuite.InterestAccrual;
+import org.poo.AccountsSuite.SavingsAccount;
+import org.poo.MagicNumbers;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.User;
+import org.poo.fileio.CommandInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Command class that pays interest on every savings account of the bank at once.
+ *
+ * The savings accounts are collected in one pass over the users, their balances and
+ * interest rates are copied into parallel primitive arrays, the new balances are
+ * computed over the arrays (a tight loop the JIT vectorizes, split across the
+ * fork-join pool for large banks), and then the balances are written back and one
+ * Interest transaction per account is added, in the order of the users and accounts.
+ * Every account ends up exactly as if addInterest had been issued for it.
+ * With lazy accrual the interest is already part of the balances, so each account only
+ * pays out what it accrued since the last payment.
+ */
+public class AddInterestAll implements BankCommand {
+    /**
+     * Below this many accounts the arrays are processed on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK = 1 << 12;
+
+    private final List<User> users;
+    private final CommandInput commandInput;
+
+    /**
+     * Constructs an AddInterestAll command.
+     *
+     * @param users the list of users whose savings accounts receive interest
+     * @param commandInput the command input containing the timestamp
+     */
+    public AddInterestAll(final List<User> users, final CommandInput commandInput) {
+        this.users = users;
+        this.commandInput = commandInput;
+    }
+
+    /**
+     * Executes the command, adding interest to every savings account.
+     */
+    @Override
+    public void execute() {
+        int timestamp = commandInput.getTimestamp();
+
+        List<SavingsAccount> accounts = new ArrayList<>();
+        List<User> owners = new ArrayList<>();
+        for (User user : users) {
+            for (Account account : user.getAccounts()) {
+                if ("savings".equals(account.getAccountType())) {
+                    accounts.add((SavingsAccount) account);
+                    owners.add(user);
+                }
+            }
+        }
+
+        int count = accounts.size();
+        if (InterestAccrual.LAZY) {
+            for (int i = 0; i < count; i++) {
+                SavingsAccount account = accounts.get(i);
+                double interestAmount = Math.round(account.applyInterest()
+                        * MagicNumbers.MND100) / MagicNumbers.MND100;
+                owners.get(i).addTransaction(TransactionFactory.interest(interestAmount,
+                        account.getCurrency(), timestamp));
+            }
+            return;
+        }
+
+        double[] balances = new double[count];
+        double[] rates = new double[count];
+        for (int i = 0; i < count; i++) {
+            SavingsAccount account = accounts.get(i);
+            balances[i] = account.getBalance();
+            rates[i] = account.getInterestRate();
+        }
+
+        double[] newBalances = new double[count];
+        accrue(balances, rates, newBalances);
+
+        for (int i = 0; i < count; i++) {
+            SavingsAccount account = accounts.get(i);
+            account.setBalance(newBalances[i]);
+
+            double interestAmount = Math.round((newBalances[i] - balances[i])
+                    * MagicNumbers.MND100) / MagicNumbers.MND100;
+            owners.get(i).addTransaction(TransactionFactory.interest(interestAmount,
+                    account.getCurrency(), timestamp));
+        }
+    }
+
+    /**
+     * Computes {@code balance + balance * rate} for every account, the same expression
+     * as {@link SavingsAccount#applyInterest()}, so the results are bit-for-bit equal.
+     *
+     * @param balances the current balances
+     * @param rates the interest rates
+     * @param newBalances receives the balances after interest
+     */
+    static void accrue(final double[] balances, final double[] rates,
+                       final double[] newBalances) {
+        int count = balances.length;
+        if (count < PARALLEL_THRESHOLD) {
+            accrueRange(balances, rates, newBalances, 0, count);
+            return;
+        }
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> accrueRange(balances, rates,
+                newBalances, chunk * CHUNK, Math.min(count, (chunk + 1) * CHUNK)));
+    }
+
+    private static void accrueRange(final double[] balances, final double[] rates,
+                                    final double[] newBalances, final int from,
+                                    final int to) {
+        for (int i = from; i < to; i++) {
+            newBalances[i] = balances[i] + balances[i] * rates[i];
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.poo.BankCommandsSuite;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.AccountsSuite.AccountsFactory;
+import org.poo.BankTeller;
+import org.poo.TransactionsSuite.Transaction;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.User;
+import org.poo.fileio.AccountRowInput;
+import org.poo.fileio.CommandInput;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a command that opens many accounts at once, one per row of
+ * (email, accountType, currency, interestRate), e.g. for onboarding the employees of a
+ * corporate client. Every row is handled like an addAccount command with the same
+ * values and the accounts get the same IBANs, but the work is batched:
+ * <ol>
+ *     <li>the owner of every row is found through the email index, not a user scan.
+ *     Only when the index does not hold the exact email (users whose emails differ
+ *     only in case) is an exact email map of all users built, once per batch;</li>
+ *     <li>the accounts are created in row order, then every owner's account and
+ *     transaction lists are grown once to their final size;</li>
+ *     <li>the accounts are added to their owners and to the IBAN index in one batch,
+ *     together with their account creation transactions.</li>
+ * </ol>
+ * Rows with an unknown email, an unknown account type or a savings account without an
+ * interest rate are skipped, as addAccount skips them.
+ */
+public class BulkAddAccounts implements BankCommand {
+    private final CommandInput command;
+    private Map<String, User> usersByExactEmail;
+
+    /**
+     * Constructs a BulkAddAccounts command.
+     *
+     * @param command the input containing the rows of the new accounts
+     */
+    public BulkAddAccounts(final CommandInput command) {
+        this.command = command;
+    }
+
+    /**
+     * Executes the command, creating the account of every valid row.
+     */
+    @Override
+    public void execute() {
+        List<AccountRowInput> rows = command.getAccountRows();
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        int timestamp = command.getTimestamp();
+
+        List<User> owners = new ArrayList<>(rows.size());
+        List<Account> created = new ArrayList<>(rows.size());
+        Map<User, List<Account>> accountsByOwner = new LinkedHashMap<>();
+        for (AccountRowInput row : rows) {
+            User user = findOwner(row.getEmail());
+            if (user == null) {
+                continue;
+            }
+            Account account = createAccount(row);
+            if (account == null) {
+                continue;
+            }
+            owners.add(user);
+            created.add(account);
+            accountsByOwner.computeIfAbsent(user, u -> new ArrayList<>()).add(account);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(created.size());
+        for (int i = 0; i < created.size(); i++) {
+            transactions.add(TransactionFactory.accountCreated(timestamp));
+        }
+
+        for (Map.Entry<User, List<Account>> entry : accountsByOwner.entrySet()) {
+            int count = entry.getValue().size();
+            entry.getKey().ensureCapacity(count, count);
+            entry.getKey().addAccounts(entry.getValue());
+        }
+        BankTeller.indexAccounts(created);
+        for (int i = 0; i < created.size(); i++) {
+            owners.get(i).addTransaction(transactions.get(i));
+        }
+    }
+
+    /**
+     * Finds the user a row belongs to, matching the email exactly like addAccount.
+     */
+    private User findOwner(final String email) {
+        if (email == null) {
+            return null;
+        }
+        String trimmed = email.trim();
+        User user = BankTeller.findUserByEmail(trimmed);
+        if (user != null && user.getEmail().equals(trimmed)) {
+            return user;
+        }
+        if (usersByExactEmail == null) {
+            usersByExactEmail = new HashMap<>();
+            for (User candidate : BankTeller.getUsers()) {
+                usersByExactEmail.putIfAbsent(candidate.getEmail(), candidate);
+            }
+        }
+        return usersByExactEmail.get(trimmed);
+    }
+
+    /**
+     * Creates the account of a row.
+     *
+     * @return the account, or null if the row is invalid
+     */
+    private static Account createAccount(final AccountRowInput row) {
+        String accountType = row.getAccountType();
+        try {
+            if ("SAVINGS".equalsIgnoreCase(accountType)) {
+                if (row.getInterestRate() == null) {
+                    return null;
+                }
+                return AccountsFactory.createAccount(accountType, row.getEmail(),
+                        row.getCurrency(), row.getInterestRate());
+            }
+            return AccountsFactory.createAccount(accountType, row.getEmail(),
+                    row.getCurrency());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
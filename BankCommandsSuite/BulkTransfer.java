@@ -0,0 +1,425 @@
+package org.poo.BankCommandsSuite;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.AccountsSuite.Account;
+import org.poo.BankTeller;
+import org.poo.ConversionPath;
+import org.poo.FlightRecorderSuite.BulkTransferEvent;
+import org.poo.MagicNumbers;
+import org.poo.MetricsSuite.CommandMetrics;
+import org.poo.MetricsSuite.MetricStep;
+import org.poo.OutputBuilder;
+import org.poo.PaymentPlanSuite.PaymentPlan;
+import org.poo.PaymentPlanSuite.PaymentPlanManager;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.User;
+import org.poo.fileio.CommandInput;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Command class that sends money from one account to many receivers, e.g. a payroll
+ * run. The transfers are read from a file with one row per transfer, either as CSV
+ * ({@code receiver,amount,description}, an optional header line is skipped) or as JSON
+ * lines ({@code {"receiver": ..., "amount": ..., "description": ...}}).
+ *
+ * Every row is handled like a sendMoney command from the same sender with the same
+ * values, in file order, but the work is done in stages:
+ * <ol>
+ *     <li>the lines are parsed, in parallel for large files;</li>
+ *     <li>the receivers are found through the IBAN index, in parallel; the few rows
+ *     naming an alias are resolved through one alias table built for the command;</li>
+ *     <li>the amounts are converted per currency pair, resolving the conversion path of
+ *     each pair once;</li>
+ *     <li>the debits and credits are applied one row after the other, with the sender
+ *     and its payment plan looked up once.</li>
+ * </ol>
+ * The command prints the outcome of every row together with the totals. The time of
+ * the run is recorded by the command metrics and, with the bank.jfc profile, by a
+ * {@link BulkTransferEvent}, not printed, so the output stays deterministic.
+ */
+public class BulkTransfer implements BankCommand {
+    public static final String OK = "ok";
+    public static final String INVALID_ROW = "Invalid row";
+    public static final String USER_NOT_FOUND = "User not found";
+    public static final String INSUFFICIENT_FUNDS = "Insufficient funds";
+
+    /**
+     * Below this many rows a stage runs on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 10;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<User> users;
+    private final CommandInput commandInput;
+    private final OutputBuilder outputBuilder;
+
+    /**
+     * One transfer of the file and its outcome.
+     */
+    public static final class Row {
+        private final int line;
+        private final String receiver;
+        private final double amount;
+        private final String description;
+        private Account account;
+        private double convertedAmount;
+        private double amountInRON;
+        private String status;
+
+        private Row(final int line, final String receiver, final double amount,
+                    final String description) {
+            this.line = line;
+            this.receiver = receiver;
+            this.amount = amount;
+            this.description = description;
+        }
+
+        /**
+         * @return the line of the row in the file, starting from 1
+         */
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * @return the IBAN or alias of the receiving account
+         */
+        public String getReceiver() {
+            return receiver;
+        }
+
+        /**
+         * @return the amount, in the currency of the sender
+         */
+        public double getAmount() {
+            return amount;
+        }
+
+        /**
+         * @return {@link #OK} or the reason the transfer was not made
+         */
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * Constructs a BulkTransfer command.
+     *
+     * @param users the list of users in the system
+     * @param commandInput the input containing the sender email, the sender account and
+     *                     the file of transfers
+     * @param outputBuilder the output builder used to print the result
+     */
+    public BulkTransfer(final List<User> users, final CommandInput commandInput,
+                        final OutputBuilder outputBuilder) {
+        this.users = users;
+        this.commandInput = commandInput;
+        this.outputBuilder = outputBuilder;
+    }
+
+    /**
+     * Executes the command, making every valid transfer of the file.
+     */
+    @Override
+    public void execute() {
+        int timestamp = commandInput.getTimestamp();
+
+        User sender = BankTeller.findUserByEmail(commandInput.getEmail());
+        if (sender == null) {
+            outputBuilder.printStandardError("bulkTransfer", "User not found", timestamp);
+            return;
+        }
+        Account senderAccount = BankTeller.findAccountByIBANOrAlias(sender,
+                commandInput.getAccount());
+        if (senderAccount == null) {
+            outputBuilder.printStandardError("bulkTransfer", "Account not found", timestamp);
+            return;
+        }
+        BulkTransferEvent event = new BulkTransferEvent();
+        event.begin();
+        List<String> lines = readLines(commandInput.getFile());
+        if (lines == null) {
+            outputBuilder.printStandardError("bulkTransfer", "File not found", timestamp);
+            return;
+        }
+
+        List<Row> rows = parse(lines);
+        resolveReceivers(rows);
+
+        PaymentPlan plan = PaymentPlanManager.getPlan(sender.getPaymentPlan().getType());
+        boolean silver = "silver".equalsIgnoreCase(plan.getType());
+        boolean standard = "standard".equalsIgnoreCase(plan.getType());
+        convertAmounts(rows, senderAccount.getCurrency(), silver);
+
+        int transferred = 0;
+        for (Row row : rows) {
+            if (row.status != null) {
+                continue;
+            }
+            double fee = 0.0;
+            if (silver) {
+                if (row.amountInRON >= MagicNumbers.MN500) {
+                    fee = row.amount * plan.getTransactionFee();
+                }
+            } else if (standard) {
+                fee = row.amount * plan.getTransactionFee();
+            }
+            if (transfer(sender, senderAccount, row, row.amount + fee, timestamp)) {
+                row.status = OK;
+                transferred++;
+            } else {
+                row.status = INSUFFICIENT_FUNDS;
+            }
+        }
+
+        if (event.shouldCommit()) {
+            event.set(senderAccount.getIBAN(), rows.size(), transferred);
+            event.commit();
+        }
+        outputBuilder.printBulkTransfer(senderAccount.getIBAN(), rows, transferred,
+                timestamp);
+    }
+
+    private static List<String> readLines(final String file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            return Files.readAllLines(Path.of(file));
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static IntStream range(final int size) {
+        IntStream indices = IntStream.range(0, size);
+        return size < PARALLEL_THRESHOLD ? indices : indices.parallel();
+    }
+
+    /**
+     * Parses every line, dropping blank lines and the CSV header.
+     */
+    private static List<Row> parse(final List<String> lines) {
+        Row[] parsed = new Row[lines.size()];
+        range(parsed.length).forEach(i -> parsed[i] = parseLine(lines.get(i), i + 1));
+
+        List<Row> rows = new ArrayList<>(parsed.length);
+        for (Row row : parsed) {
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Row parseLine(final String text, final int line) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+
+        String receiver;
+        String amount;
+        String description;
+        if (trimmed.charAt(0) == '{') {
+            try {
+                JsonNode node = MAPPER.readTree(trimmed);
+                receiver = node.hasNonNull("receiver") ? node.get("receiver").asText() : null;
+                amount = node.hasNonNull("amount") ? node.get("amount").asText() : null;
+                description = node.hasNonNull("description")
+                        ? node.get("description").asText() : null;
+            } catch (JsonProcessingException e) {
+                return invalid(line, null);
+            }
+        } else {
+            String[] fields = trimmed.split(",", 3);
+            receiver = fields[0].trim();
+            amount = fields.length > 1 ? fields[1].trim() : null;
+            description = fields.length > 2 ? fields[2].trim() : null;
+        }
+
+        double value = parseAmount(amount);
+        if (Double.isNaN(value)) {
+            if ("receiver".equalsIgnoreCase(receiver)) {
+                return null;
+            }
+            return invalid(line, receiver);
+        }
+        if (receiver == null || receiver.isEmpty()) {
+            return invalid(line, receiver);
+        }
+        return new Row(line, receiver, value, description);
+    }
+
+    private static double parseAmount(final String amount) {
+        if (amount == null) {
+            return Double.NaN;
+        }
+        try {
+            double value = Double.parseDouble(amount);
+            return Double.isInfinite(value) ? Double.NaN : value;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static Row invalid(final int line, final String receiver) {
+        Row row = new Row(line, receiver, 0.0, null);
+        row.status = INVALID_ROW;
+        return row;
+    }
+
+    /**
+     * Finds the receiving account of every row. A receiver is an IBAN or, like for
+     * sendMoney, the alias of an account of any user.
+     */
+    private void resolveReceivers(final List<Row> rows) {
+        long start = CommandMetrics.start();
+        range(rows.size()).forEach(i -> {
+            Row row = rows.get(i);
+            if (row.status == null) {
+                row.account = BankTeller.findIndexedAccount(row.receiver);
+            }
+        });
+
+        Map<String, Account> aliases = null;
+        for (Row row : rows) {
+            if (row.status != null || row.account != null) {
+                continue;
+            }
+            if (aliases == null) {
+                aliases = aliasIndex();
+            }
+            row.account = aliases.get(row.receiver.toLowerCase(Locale.ROOT));
+            if (row.account == null) {
+                row.status = USER_NOT_FOUND;
+            }
+        }
+        CommandMetrics.record(MetricStep.ACCOUNT_LOOKUP, start);
+    }
+
+    /**
+     * Indexes the accounts by alias, keeping the first account in user order, which is
+     * the one a scan of the users finds.
+     */
+    private Map<String, Account> aliasIndex() {
+        Map<String, Account> aliases = new HashMap<>();
+        for (User user : users) {
+            for (Account account : user.getAccounts()) {
+                if (account.getAlias() != null) {
+                    aliases.putIfAbsent(account.getAlias().toLowerCase(Locale.ROOT), account);
+                }
+            }
+        }
+        return aliases;
+    }
+
+    /**
+     * Converts the amount of every row into the currency of its receiver, and into RON
+     * when the fee of the sender's plan depends on it. The rows are grouped by currency
+     * pair, so the conversion path of a pair is looked up once.
+     */
+    private static void convertAmounts(final List<Row> rows, final String senderCurrency,
+                                       final boolean inRON) {
+        List<Row> valid = new ArrayList<>(rows.size());
+        Map<String, List<Row>> byCurrency = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (row.status != null) {
+                continue;
+            }
+            valid.add(row);
+            String currency = row.account.getCurrency();
+            if (senderCurrency.equalsIgnoreCase(currency)) {
+                row.convertedAmount = row.amount;
+            } else {
+                byCurrency.computeIfAbsent(currency.toUpperCase(Locale.ROOT),
+                        c -> new ArrayList<>()).add(row);
+            }
+        }
+
+        for (List<Row> group : byCurrency.values()) {
+            double[] converted = convert(group, senderCurrency,
+                    group.get(0).account.getCurrency());
+            for (int i = 0; i < converted.length; i++) {
+                group.get(i).convertedAmount = converted[i];
+            }
+        }
+        if (inRON && !valid.isEmpty()) {
+            double[] converted = convert(valid, senderCurrency, "RON");
+            for (int i = 0; i < converted.length; i++) {
+                valid.get(i).amountInRON = converted[i];
+            }
+        }
+    }
+
+    /**
+     * Converts the amounts of a group of rows with exactly the result of
+     * {@link BankTeller#convertCurrency}: along the cached path of the pair, falling back
+     * to convertCurrency for the amounts the path does not cover.
+     */
+    private static double[] convert(final List<Row> group, final String fromCurrency,
+                                     final String toCurrency) {
+        long start = CommandMetrics.start();
+        ConversionPath path = BankTeller.conversionPath(fromCurrency, toCurrency);
+        double[] converted = new double[group.size()];
+        if (path.isResolved()) {
+            range(converted.length).forEach(i -> {
+                double amount = group.get(i).amount;
+                double result = path.apply(amount);
+                converted[i] = path.matchesWalk(amount, result) ? result : Double.NaN;
+            });
+        } else {
+            Arrays.fill(converted, Double.NaN);
+        }
+        CommandMetrics.record(MetricStep.CURRENCY_CONVERSION, start);
+
+        for (int i = 0; i < converted.length; i++) {
+            if (Double.isNaN(converted[i])) {
+                converted[i] = BankTeller.convertCurrency(group.get(i).amount, fromCurrency,
+                        toCurrency);
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Makes one transfer, recording the same transactions as sendMoney.
+     *
+     * @return false if the sender could not pay the amount and the fee
+     */
+    private static boolean transfer(final User sender, final Account senderAccount,
+                                    final Row row, final double totalDeduction,
+                                    final int timestamp) {
+        if (senderAccount.getBalance() < totalDeduction) {
+            sender.addTransaction(TransactionFactory.noFunds(timestamp, "Insufficient funds"));
+            return false;
+        }
+
+        Account receiverAccount = row.account;
+        senderAccount.setBalance(senderAccount.getBalance() - totalDeduction);
+        receiverAccount.setBalance(receiverAccount.getBalance() + row.convertedAmount);
+
+        sender.addTransaction(TransactionFactory.transfer(timestamp, row.description,
+                senderAccount.getIBAN(), receiverAccount.getIBAN(), row.amount,
+                "sent", senderAccount.getCurrency()));
+        receiverAccount.getOwner().addTransaction(TransactionFactory.transfer(timestamp,
+                row.description, senderAccount.getIBAN(), receiverAccount.getIBAN(),
+                row.convertedAmount, "received", receiverAccount.getCurrency()));
+        return true;
+    }
+}
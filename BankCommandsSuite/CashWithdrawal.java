@@ -4,7 +4,6 @@ import org.poo.*;
 import org.poo.AccountsSuite.Account;
 import org.poo.CardsSuite.Card;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.fileio.CommandInput;
 
 import java.util.List;
@@ -65,13 +64,11 @@ public class CashWithdrawal implements BankCommand {
 
 
                                 user.addTransaction(TransactionFactory
-                                        .createTransaction(TransactionTag.WITHDRAW_CASH,
-                                                timestamp, amountRON));
+                                        .withdrawCash(timestamp, amountRON));
 
                             } else {
                                 user.addTransaction(TransactionFactory
-                                        .createTransaction(TransactionTag.NO_FUNDS,
-                                                timestamp, "Insufficient funds"));
+                                        .noFunds(timestamp, "Insufficient funds"));
                             }
 
                             return;
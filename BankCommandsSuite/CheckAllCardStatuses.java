@@ -0,0 +1,52 @@
+package org.poo.BankCommandsSuite;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.AccountsSuite.CardStatusWatch;
+import org.poo.CardsSuite.Card;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.fileio.CommandInput;
+
+/**
+ * Represents a command that runs checkCardStatus on every card of the bank at once.
+ * A card can only be frozen when its account is at or below its minimum balance, so
+ * only the accounts in the near minimum bucket of {@link CardStatusWatch} are visited,
+ * not every account of every user. Each card is handled exactly like checkCardStatus
+ * handles it.
+ */
+public class CheckAllCardStatuses implements BankCommand {
+    private final CommandInput commandInput;
+
+    /**
+     * Constructs a CheckAllCardStatuses command.
+     *
+     * @param commandInput the input data containing the timestamp
+     */
+    public CheckAllCardStatuses(final CommandInput commandInput) {
+        this.commandInput = commandInput;
+    }
+
+    /**
+     * Executes the command, freezing the active cards of every account that reached its
+     * minimum balance and recording a transaction for each.
+     */
+    @Override
+    public void execute() {
+        int timestamp = commandInput.getTimestamp();
+
+        for (Account account : CardStatusWatch.nearMinimum()) {
+            if (account.getBalance() > account.getMinBalance()) {
+                continue;
+            }
+            for (Card card : account.getCards()) {
+                if ("active".equals(card.getStatus())) {
+                    account.getOwner().addTransaction(TransactionFactory.cardStatus(
+                            timestamp,
+                            "You have reached the minimum amount"
+                                    + " of funds, the card will be frozen"
+                    ));
+                    account.checkBalanceStatus();
+                }
+            }
+        }
+    }
+}
@@ -4,7 +4,6 @@ import org.poo.AccountsSuite.Account;
 import org.poo.CardsSuite.Card;
 import org.poo.OutputBuilder;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.User;
 import org.poo.fileio.CommandInput;
 
@@ -64,8 +63,7 @@ public class CheckCardStatus implements BankCommand {
                         if ("active".equals(status) && balance <= minBalance) {
                             description = "You have reached the minimum amount"
                                     + " of funds, the card will be frozen";
-                            user.addTransaction(TransactionFactory.createTransaction(
-                                    TransactionTag.CARD_STAT,
+                            user.addTransaction(TransactionFactory.cardStatus(
                                     commandInput.getTimestamp(),
                                     description
                             ));
@@ -2,7 +2,6 @@ package org.poo.BankCommandsSuite;
 
 import org.poo.AccountsSuite.Account;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.User;
 import org.poo.fileio.CommandInput;
 
@@ -58,8 +57,7 @@ public class CreateCard implements BankCommand {
                         String cardNumber = account.getCards().getLast().getCardNumber();
 
                         user.addTransaction(TransactionFactory
-                                .createTransaction(TransactionTag.CARD_CREATED,
-                                        commandInput.getTimestamp(), account.getIBAN(),
+                                .cardCreated(commandInput.getTimestamp(), account.getIBAN(),
                                         cardNumber, user.getEmail()));
                         return;
                     }
@@ -48,7 +48,7 @@ public class DeleteAccount implements BankCommand {
                 List<Account> accounts = user.getAccounts();
                 for (Account account : accounts) {
                     if (account.getIBAN().equals(iban) && account.getBalance() == 0) {
-                        accounts.remove(account);
+                        user.removeAccount(account);
                         outputBuilder.printDeleteAccountSuccess(timestamp);
                         return;
                     }
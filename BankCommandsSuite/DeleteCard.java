@@ -3,7 +3,6 @@ package org.poo.BankCommandsSuite;
 import org.poo.AccountsSuite.Account;
 import org.poo.CardsSuite.Card;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.User;
 import org.poo.fileio.CommandInput;
 
@@ -57,8 +56,7 @@ public class DeleteCard implements BankCommand {
                 } else {
                     cardDeleted = true;
                     user.addTransaction(TransactionFactory
-                            .createTransaction(TransactionTag.CARD_DELETED,
-                                    commandInput.getTimestamp(), account.getIBAN(),
+                            .cardDeleted(commandInput.getTimestamp(), account.getIBAN(),
                                     card.getCardNumber(), user.getEmail()));
                 }
             }
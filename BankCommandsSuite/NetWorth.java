@@ -0,0 +1,129 @@
+package org.poo.BankCommandsSuite;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.BankTeller;
+import org.poo.ConversionVector;
+import org.poo.OutputBuilder;
+import org.poo.User;
+import org.poo.fileio.CommandInput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Command class that values the whole position of a user, or of every user of the
+ * bank, in a reporting currency: the sum of the balances of all the user's classic and
+ * savings accounts, each converted into the requested currency.
+ *
+ * Balances are converted with the cached {@link ConversionVector} of the requested
+ * currency, so valuing a user costs one multiplication per account. Without an email
+ * the command reports every user; the users are then valued in parallel for large
+ * banks. A currency no exchange rate mentions is rejected with "Currency not found".
+ * An account whose currency has no rate path to the reporting currency is left out of
+ * the sum and listed as unconvertible, never walked. The workers only read: balances are side-effect free (with lazy interest the
+ * pending interest is added, not posted), and the vector, its recursive fallback and
+ * the rates of the command are immutable while it runs. Nothing is posted, published
+ * or recorded from a worker thread.
+ */
+public class NetWorth implements BankCommand {
+    /**
+     * Below this many users the bank-wide report is computed on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    private final List<User> users;
+    private final CommandInput commandInput;
+    private final OutputBuilder outputBuilder;
+
+    /**
+     * Constructs a NetWorth command.
+     *
+     * @param users the list of users of the bank
+     * @param commandInput the command input containing the email (optional), the
+     *                     reporting currency and the timestamp
+     * @param outputBuilder the output builder used to print the result
+     */
+    public NetWorth(final List<User> users, final CommandInput commandInput,
+                    final OutputBuilder outputBuilder) {
+        this.users = users;
+        this.commandInput = commandInput;
+        this.outputBuilder = outputBuilder;
+    }
+
+    /**
+     * Executes the command, printing the net worth of the given user or of every user.
+     */
+    @Override
+    public void execute() {
+        String email = commandInput.getEmail();
+        String currency = commandInput.getCurrency();
+        int timestamp = commandInput.getTimestamp();
+
+        if (currency == null || !BankTeller.isKnownCurrency(currency)) {
+            outputBuilder.printStandardError("netWorth", "Currency not found", timestamp);
+            return;
+        }
+        ConversionVector vector = BankTeller.conversionVector(currency);
+
+        if (email == null) {
+            double[] totals = new double[users.size()];
+            List<List<String>> unconvertible = new ArrayList<>(
+                    Collections.nCopies(users.size(), null));
+            if (users.size() < PARALLEL_THRESHOLD) {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] = netWorth(users.get(i), vector, unconvertible, i);
+                }
+            } else {
+                IntStream.range(0, totals.length).parallel().forEach(i ->
+                        totals[i] = netWorth(users.get(i), vector, unconvertible, i));
+            }
+            outputBuilder.printBankNetWorth(users, totals, unconvertible, currency,
+                    timestamp);
+            return;
+        }
+
+        User user = BankTeller.findUserByEmail(email);
+        if (user == null) {
+            outputBuilder.printStandardError("netWorth", "User not found", timestamp);
+            return;
+        }
+        List<List<String>> unconvertible = new ArrayList<>(Collections.nCopies(1, null));
+        double total = netWorth(user, vector, unconvertible, 0);
+        outputBuilder.printNetWorth(user.getEmail(), total, unconvertible.get(0), currency,
+                timestamp);
+    }
+
+    /**
+     * Sums the balances of a user's accounts in the target currency of a vector. The
+     * IBANs of the accounts that cannot be converted are stored at the user's index;
+     * the index is left null when every account converts. Each call only sets its own
+     * index, so the users can be valued in parallel.
+     *
+     * @param user the user
+     * @param vector the conversion vector of the reporting currency
+     * @param unconvertible the unconvertible IBANs of every user
+     * @param index the index of the user
+     * @return the net worth of the user, without the unconvertible accounts
+     */
+    static double netWorth(final User user, final ConversionVector vector,
+                           final List<List<String>> unconvertible, final int index) {
+        double total = 0;
+        List<String> skipped = null;
+        for (Account account : user.getAccounts()) {
+            if (!vector.canConvert(account.getCurrency())) {
+                if (skipped == null) {
+                    skipped = new ArrayList<>();
+                }
+                skipped.add(account.getIBAN());
+                continue;
+            }
+            total += vector.convert(account.getBalance(), account.getCurrency());
+        }
+        if (skipped != null) {
+            unconvertible.set(index, skipped);
+        }
+        return total;
+    }
+}
@@ -6,15 +6,13 @@ import org.poo.CardsSuite.Card;
 import org.poo.CardsSuite.OneTimeCard;
 import org.poo.CashbackSuite.CashBackRules;
 import org.poo.CommerciantsSuite.CommerciantTransaction;
+import org.poo.PaymentPlanSuite.PaymentPlan;
 import org.poo.PaymentPlanSuite.PaymentPlanManager;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.fileio.CommandInput;
 
 import java.util.List;
 
-import static org.poo.TransactionsSuite.TransactionTag.ONLN_PAYMENT;
-
 /**
  * Represents a command for making an online payment using a user's card.
  * The payment is processed by checking the card's status, converting currencies if necessary,
@@ -48,6 +46,10 @@ public class PayOnline implements BankCommand {
      * Currency conversion is performed if the payment currency differs from the account currency.
      * If the card is frozen or funds are insufficient, appropriate error transactions are created.
      * If the card is not found, an error message is returned.
+     *
+     * The user, card, commerciant and payment plan are resolved once, through the
+     * bank's indexes, and the amount, cashback and fee are priced with cached conversion
+     * paths, so a successful payment allocates nothing but its ledger records.
      */
     public void execute() {
         String email = commandInput.getEmail();
@@ -62,131 +64,115 @@ public class PayOnline implements BankCommand {
             return;
         }
 
-        for (User user : users) {
-            if (user.getEmail().trim().equalsIgnoreCase(email.trim())) {
-                for (Account account : user.getAccounts()) {
-                    for (Card card : account.getCards()) {
-                        if (card.getCardNumber().trim().equals(cardNumber.trim())) {
-
-                            double convertedAmount = amount;
-                            if (card.getStatus().equals("frozen")) {
-                                user.addTransaction(TransactionFactory
-                                        .createTransaction(TransactionTag.CARD_STAT,
-                                                commandInput.getTimestamp(),
-                                                "The card is frozen"));
-                                return;
-                            }
-
-                            if (!account.getCurrency().equalsIgnoreCase(currency)) {
-                                convertedAmount = BankTeller.convertCurrency(amount,
-                                        currency, account.getCurrency());
-                            }
-
-                            double convertedForCashback = convertedAmount;
-                            if (!account.getCurrency().equalsIgnoreCase("RON")) {
-                                convertedForCashback = BankTeller.convertCurrency(convertedAmount,
-                                        account.getCurrency(), "RON");
-                            }
-
-                            ExtendedCommerciant commerciantAcc = ExtendedCommerciant
-                                    .findCommerciantByName(commerciant);
-                            double cashbackAmount = 0;
-                            if (commerciantAcc != null) {
-                                String cashbackStrategy = commerciantAcc
-                                                          .getCashbackStrategy().toLowerCase();
-
-                                if ("numberoftransactions".equals(cashbackStrategy)) {
-                                    cashbackAmount = CashBackRules.calculateCashback(
-                                            account.getIBAN(), user, commerciantAcc,
-                                            convertedForCashback);
-                                } else if ("spendingthreshold".equals(cashbackStrategy)) {
-                                    cashbackAmount = CashBackRules.calculateCashback(
-                                            account.getIBAN(), user, commerciantAcc,
-                                            convertedForCashback);
-                                }
-                            }
-
-                            double finalCashbackAmount = cashbackAmount;
-                            if (!account.getCurrency().equalsIgnoreCase("RON")
-                                    && cashbackAmount > 0) {
-                                finalCashbackAmount = BankTeller.convertCurrency(cashbackAmount,
-                                        "RON", account.getCurrency());
-                            }
-
-                            double transactionFeeRON = 0;
-                            if (user.getPaymentPlan().isFeeApplicable(convertedForCashback)) {
-                                transactionFeeRON = user.getPaymentPlan()
-                                                    .getTransactionFee() * convertedForCashback;
-                            }
-
-                            double finalTransactionFee = transactionFeeRON;
-                            if (!account.getCurrency().equalsIgnoreCase("RON")
-                                    && transactionFeeRON > 0) {
-                                finalTransactionFee = BankTeller.convertCurrency(transactionFeeRON,
-                                        "RON", account.getCurrency());
-                            }
-
-                            convertedAmount += finalTransactionFee;
-
-                            if (account.getBalance() >= convertedAmount) {
-                                account.setBalance(account.getBalance() - convertedAmount);
-
-                                if (finalCashbackAmount > 0) {
-                                    account.setBalance(account.getBalance() + finalCashbackAmount);
-                                }
-
-                                CommerciantTransaction commerciantTransaction =
-                                        new CommerciantTransaction(account.getIBAN(),
-                                                convertedAmount - finalTransactionFee,
-                                                timestamp,
-                                                description, commerciant);
-                                BankTeller.addTransaction(commerciantTransaction);
-
-                                if (user.canAutoUpgradeToGold()) {
-                                    user.setPaymentPlan(PaymentPlanManager.getPlan("gold"));
-                                }
-
-                                user.addTransaction(TransactionFactory
-                                        .createTransaction(ONLN_PAYMENT,
-                                                timestamp, description,
-                                                convertedAmount - finalTransactionFee,
-                                                commerciant));
-
-                                if ("ONETIME".equals(card.getTag())) {
-                                    String oldCardNumber = card.getCardNumber();
-
-                                    user.addTransaction(TransactionFactory.createTransaction(
-                                            TransactionTag.CARD_DELETED,
-                                            commandInput.getTimestamp(),
-                                            account.getIBAN(),
-                                            oldCardNumber,
-                                            user.getEmail()
-                                    ));
-
-                                    ((OneTimeCard) card).changeCardNumber();
-
-                                    String newCardNumber = card.getCardNumber();
-
-                                    user.addTransaction(TransactionFactory.createTransaction(
-                                            TransactionTag.CARD_CREATED,
-                                            commandInput.getTimestamp(),
-                                            account.getIBAN(),
-                                            newCardNumber,
-                                            user.getEmail()
-                                    ));
-                                }
-
-                            } else {
-                                user.addTransaction(TransactionFactory
-                                        .createTransaction(TransactionTag.NO_FUNDS,
-                                                timestamp, "Insufficient funds"));
-                            }
-                            return;
-                        }
-                    }
+        User user = BankTeller.findUserByEmail(email);
+        Account account = null;
+        Card card = null;
+        if (user != null) {
+            for (Account candidate : user.getAccounts()) {
+                card = candidate.findCard(cardNumber);
+                if (card != null) {
+                    account = candidate;
+                    break;
                 }
             }
         }
-        outputBuilder.payOnlineError("Card not found", timestamp);
+
+        if (card == null) {
+            outputBuilder.payOnlineError("Card not found", timestamp);
+            return;
+        }
+
+        if (card.getStatus().equals("frozen")) {
+            user.addTransaction(TransactionFactory
+                    .cardStatus(commandInput.getTimestamp(), "The card is frozen"));
+            return;
+        }
+
+        String accountCurrency = account.getCurrency();
+        boolean ronAccount = accountCurrency.equalsIgnoreCase("RON");
+
+        double convertedAmount = amount;
+        if (!accountCurrency.equalsIgnoreCase(currency)) {
+            convertedAmount = BankTeller.convertCurrency(amount, currency, accountCurrency);
+        }
+
+        double convertedForCashback = convertedAmount;
+        if (!ronAccount) {
+            convertedForCashback = BankTeller.convertCurrency(convertedAmount,
+                    accountCurrency, "RON");
+        }
+
+        ExtendedCommerciant commerciantAcc = ExtendedCommerciant
+                .findCommerciantByName(commerciant);
+        double cashbackAmount = 0;
+        if (commerciantAcc != null && commerciantAcc.isCashbackEligible()) {
+            cashbackAmount = CashBackRules.calculateCashback(account.getIBAN(), user,
+                    commerciantAcc, convertedForCashback);
+        }
+
+        double finalCashbackAmount = cashbackAmount;
+        if (!ronAccount && cashbackAmount > 0) {
+            finalCashbackAmount = BankTeller.convertCurrency(cashbackAmount,
+                    "RON", accountCurrency);
+        }
+
+        PaymentPlan plan = user.getPaymentPlan();
+        double transactionFeeRON = 0;
+        if (plan.isFeeApplicable(convertedForCashback)) {
+            transactionFeeRON = plan.getTransactionFee() * convertedForCashback;
+        }
+
+        double finalTransactionFee = transactionFeeRON;
+        if (!ronAccount && transactionFeeRON > 0) {
+            finalTransactionFee = BankTeller.convertCurrency(transactionFeeRON,
+                    "RON", accountCurrency);
+        }
+
+        convertedAmount += finalTransactionFee;
+
+        if (account.getBalance() < convertedAmount) {
+            user.addTransaction(TransactionFactory
+                    .noFunds(timestamp, "Insufficient funds"));
+            return;
+        }
+
+        account.setBalance(account.getBalance() - convertedAmount);
+
+        if (finalCashbackAmount > 0) {
+            account.setBalance(account.getBalance() + finalCashbackAmount);
+        }
+
+        double paidAmount = convertedAmount - finalTransactionFee;
+        BankTeller.addTransaction(new CommerciantTransaction(account.getIBAN(),
+                paidAmount, timestamp, description, commerciant));
+
+        if (user.canAutoUpgradeToGold()) {
+            user.setPaymentPlan(PaymentPlanManager.getPlan("gold"));
+        }
+
+        user.addTransaction(TransactionFactory.onlinePayment(timestamp, description,
+                paidAmount, commerciant));
+
+        if ("ONETIME".equals(card.getTag())) {
+            String oldCardNumber = card.getCardNumber();
+
+            user.addTransaction(TransactionFactory.cardDeleted(
+                    commandInput.getTimestamp(),
+                    account.getIBAN(),
+                    oldCardNumber,
+                    user.getEmail()
+            ));
+
+            ((OneTimeCard) card).changeCardNumber();
+
+            String newCardNumber = card.getCardNumber();
+
+            user.addTransaction(TransactionFactory.cardCreated(
+                    commandInput.getTimestamp(),
+                    account.getIBAN(),
+                    newCardNumber,
+                    user.getEmail()
+            ));
+        }
     }
 }
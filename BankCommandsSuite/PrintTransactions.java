@@ -59,6 +59,6 @@ public class PrintTransactions implements BankCommand {
             return;
         }
 
-        outputBuilder.printTransactions(transactions, timestamp);
+        outputBuilder.printTransactions(user, timestamp);
     }
 }
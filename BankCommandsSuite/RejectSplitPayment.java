@@ -0,0 +1,43 @@
+package org.poo.BankCommandsSuite;
+
+import org.poo.BankTeller;
+import org.poo.SplitCoordinator;
+import org.poo.User;
+import org.poo.fileio.CommandInput;
+
+/**
+ * Represents a command that allows a user to reject a split payment within the banking system.
+ * The oldest pending split of the given type in the user's request queue is cancelled for
+ * every participant, and nobody pays.
+ */
+public class RejectSplitPayment implements BankCommand {
+    private final CommandInput commandInput;
+    private final SplitCoordinator splitCoordinator;
+
+    /**
+     * Constructs a RejectSplitPayment command.
+     *
+     * @param commandInput the input containing the email of the user and the split type
+     * @param splitCoordinator the coordinator that keeps the pending splits
+     */
+    public RejectSplitPayment(final CommandInput commandInput,
+                              final SplitCoordinator splitCoordinator) {
+        this.commandInput = commandInput;
+        this.splitCoordinator = splitCoordinator;
+    }
+
+    /**
+     * Executes the command. Does nothing if the user does not exist or has no pending
+     * split of the given type.
+     */
+    @Override
+    public void execute() {
+        User user = BankTeller.findUserByEmail(commandInput.getEmail());
+        if (user == null) {
+            return;
+        }
+
+        splitCoordinator.reject(user, commandInput.getSplitPaymentType(),
+                commandInput.getTimestamp());
+    }
+}
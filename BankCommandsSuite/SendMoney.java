@@ -5,7 +5,6 @@ import org.poo.AccountsSuite.Account;
 import org.poo.PaymentPlanSuite.PaymentPlan;
 import org.poo.PaymentPlanSuite.PaymentPlanManager;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.fileio.CommandInput;
 
 import java.util.List;
@@ -101,8 +100,8 @@ public class SendMoney implements BankCommand {
 
 
         if (senderAccount.getBalance() < totalDeduction) {
-            senderUser.addTransaction(TransactionFactory.createTransaction(
-                    TransactionTag.NO_FUNDS, timestamp, "Insufficient funds"));
+            senderUser.addTransaction(TransactionFactory.noFunds(
+                    timestamp, "Insufficient funds"));
             return;
         }
 
@@ -110,16 +109,16 @@ public class SendMoney implements BankCommand {
         receiverAccount.setBalance(receiverAccount.getBalance() + convertedAmount);
 
 
-        senderUser.addTransaction(TransactionFactory.createTransaction(
-                TransactionTag.TRANSFER, timestamp, description,
+        senderUser.addTransaction(TransactionFactory.transfer(
+                timestamp, description,
                 senderAccount.getIBAN(),
-                receiverAccount.getIBAN(), String.valueOf(amount),
+                receiverAccount.getIBAN(), amount,
                 "sent", senderAccount.getCurrency()));
 
-        receiverUser.addTransaction(TransactionFactory.createTransaction(
-                TransactionTag.TRANSFER, timestamp, description,
+        receiverUser.addTransaction(TransactionFactory.transfer(
+                timestamp, description,
                 senderAccount.getIBAN(),
-                receiverAccount.getIBAN(), String.valueOf(convertedAmount),
+                receiverAccount.getIBAN(), convertedAmount,
                 "received", receiverAccount.getCurrency()));
     }
 
@@ -2,49 +2,55 @@ package org.poo.BankCommandsSuite;
 
 import org.poo.*;
 import org.poo.AccountsSuite.Account;
-import org.poo.AccountsSuite.ClassicAccount;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.fileio.CommandInput;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Command class responsible for processing a split payment across multiple accounts.
  * This class divides a total amount into equal parts and deducts the corresponding
- * amount
- * from each specified account. The transaction is recorded for each account involved.
+ * amount from each specified account, only if every account can pay its part.
+ * The transaction is recorded for each account involved.
  */
 public class SplitPayment implements BankCommand {
     private final List<User> users;
     private final CommandInput commandInput;
     private final OutputBuilder outputBuilder;
+    private final SplitCoordinator splitCoordinator;
 
     /**
      * Constructs a SplitPayment command.
      *
-     * @param users         the list of users in the system
-     * @param commandInput  the input containing the details for the split payment
-     * @param outputBuilder the output builder used to format and print results
+     * @param users            the list of users in the system
+     * @param commandInput     the input containing the details for the split payment
+     * @param outputBuilder    the output builder used to format and print results
+     * @param splitCoordinator the coordinator that keeps the pending custom splits
      */
     public SplitPayment(final List<User> users, final CommandInput commandInput,
-                        final OutputBuilder outputBuilder) {
+                        final OutputBuilder outputBuilder,
+                        final SplitCoordinator splitCoordinator) {
         this.users = users;
         this.commandInput = commandInput;
         this.outputBuilder = outputBuilder;
+        this.splitCoordinator = splitCoordinator;
     }
 
     /**
      * Executes the SplitPayment command.
      * This method performs the following steps:
      * <ol>
-     *     <li>Removes duplicate IBANs from the list of account IBANs.</li>
      *     <li>Checks if each account has sufficient funds for the split amount.</li>
      *     <li>If all accounts have sufficient funds, deducts the split amount from each
      *     account.</li>
-     *     <li>Creates a transaction for each account involved in the split payment.</li>
+     *     <li>Creates a transaction for each account involved in the split payment,
+     *     failed if any account could not pay.</li>
      * </ol>
+     * A custom split is not paid right away: it is opened in the split coordinator and
+     * paid once every participant has accepted it.
      */
     @Override
     public void execute() {
@@ -55,102 +61,141 @@ public class SplitPayment implements BankCommand {
         int timestamp = commandInput.getTimestamp();
 
         if ("custom".equalsIgnoreCase(splitPaymentType)) {
-            List<SplitNode> nullPaymentNodes = new ArrayList<>();
-
-            for (String iban : accountIBANs) {
-                SplitNode nullNode = new SplitNode(iban, 0.0, 0);
-                nullPaymentNodes.add(nullNode);
-
-                boolean accountFound = false;
-                for (User user : users) {
-                    Account account = BankTeller.findAccountByIBANOrAlias(user, iban);
-                    if (account != null
-                            && "CLASSIC".equalsIgnoreCase(account.getAccountType())) {
-                        ClassicAccount classicAccount = (ClassicAccount) account;
-                        RequestNode requestNode = new RequestNode(0.0, iban);
-                        user.getRequestQueue().add(requestNode);
-                        accountFound = true;
-                        break;
-                    }
-                }
-                if (!accountFound) {
+            List<Double> amountForUsers = commandInput.getAmountForUsers();
+            int count = accountIBANs.size();
+            Account[] accounts = new Account[count];
+            double[] amounts = new double[count];
+            boolean allFound = true;
+
+            for (int i = 0; i < count; i++) {
+                String iban = accountIBANs.get(i);
+                accounts[i] = findClassicAccount(iban);
+                if (accounts[i] == null) {
                     outputBuilder.printStandardError("splitPayment",
                             "Account not found: " + iban, timestamp);
+                    allFound = false;
+                } else if (amountForUsers != null && i < amountForUsers.size()) {
+                    amounts[i] = amountForUsers.get(i);
                 }
             }
 
-            for (User user : users) {
-                user.addTransaction(TransactionFactory.createTransaction(
-                        TransactionTag.NULL_PAYMENT,
-                        timestamp,
-                        accountIBANs,
-                        0.0,
-                        currency
-                ));
+            if (allFound) {
+                splitCoordinator.open(splitPaymentType, currency, totalAmount, timestamp,
+                        accountIBANs, accounts, amounts);
             }
         } else {
-            int numberOfAccounts = accountIBANs.size();
-            double splitAmount = totalAmount / numberOfAccounts;
-
-            for (String iban : accountIBANs) {
-                processSplitPayment(iban, splitAmount, currency,
-                        timestamp, false);
-            }
+            double splitAmount = totalAmount / accountIBANs.size();
+            processEqualSplit(accountIBANs, splitAmount, currency, timestamp);
         }
     }
 
     /**
-     * Procesează plata pentru un cont specific.
+     * Finds the classic account of a split participant. The IBAN index is tried first;
+     * if the IBAN is not a classic account, the accounts of every user are searched,
+     * which also matches aliases.
      *
-     * @param iban           IBAN-ul contului
-     * @param amount         Suma care trebuie retrasă
-     * @param currency       Moneda tranzacției
-     * @param timestamp      Timpul tranzacției
-     * @param addRequestNode Dacă trebuie adăugat un RequestNode în coadă
+     * @param iban the IBAN or alias given in the command
+     * @return the classic account, or null if there is none
      */
-    private void processSplitPayment(final String iban, final double amount,
-                                     final String currency,
-                                     final int timestamp,
-                                     final boolean addRequestNode) {
-        boolean accountFound = false;
-
+    private Account findClassicAccount(final String iban) {
+        Account account = BankTeller.findAccountByIBAN(iban);
+        if (account != null && "CLASSIC".equalsIgnoreCase(account.getAccountType())) {
+            return account;
+        }
         for (User user : users) {
-            Account account = BankTeller.findAccountByIBANOrAlias(user, iban);
-            if (account != null) {
-                accountFound = true;
-
-                double amountToWithdraw = amount;
-                if (!account.getCurrency().equalsIgnoreCase(currency)) {
-                    amountToWithdraw = BankTeller.convertCurrency(amount, currency,
-                            account.getCurrency());
-                }
-
-                if (account.getBalance() < amountToWithdraw) {
-                    outputBuilder.printStandardError("splitPayment",
-                            "Insufficient funds for account: " + iban, timestamp);
-                    user.addTransaction(TransactionFactory
-                            .createTransaction(TransactionTag.FAILED_SPLIT_PAY,
-                                    timestamp, List.of(iban), amountToWithdraw, currency));
-                    return;
-                }
+            account = BankTeller.findAccountByIBANOrAlias(user, iban);
+            if (account != null && "CLASSIC".equalsIgnoreCase(account.getAccountType())) {
+                return account;
+            }
+        }
+        return null;
+    }
 
-                account.setBalance(account.getBalance() - amountToWithdraw);
+    /**
+     * Pays an equal split in two phases. The first phase finds every participant's
+     * account and checks it can pay its share, converting the share once per account
+     * currency; nothing is debited yet. The second phase either debits every account
+     * and records a split payment for each participant, or, if an account is missing
+     * or short of funds, records a failed split payment for each participant and
+     * debits nobody.
+     *
+     * @param accountIBANs the IBANs or aliases of the participants
+     * @param amount       the share every participant pays, in the split currency
+     * @param currency     the currency of the split
+     * @param timestamp    the timestamp of the command
+     */
+    private void processEqualSplit(final List<String> accountIBANs, final double amount,
+                                   final String currency, final int timestamp) {
+        int count = accountIBANs.size();
+        Account[] accounts = new Account[count];
+        double[] debits = new double[count];
+        Map<String, Double> shareByCurrency = new HashMap<>();
+        Map<Account, Double> owed = new IdentityHashMap<>();
+        boolean allFound = true;
+        boolean allFunded = true;
+
+        for (int i = 0; i < count; i++) {
+            String iban = accountIBANs.get(i);
+            Account account = findAccount(iban);
+            if (account == null) {
+                outputBuilder.printStandardError("splitPayment",
+                        "Account not found: " + iban, timestamp);
+                allFound = false;
+                continue;
+            }
+            accounts[i] = account;
+
+            String accountCurrency = account.getCurrency();
+            Double share = shareByCurrency.get(accountCurrency);
+            if (share == null) {
+                share = accountCurrency.equalsIgnoreCase(currency) ? amount
+                        : BankTeller.convertCurrency(amount, currency, accountCurrency);
+                shareByCurrency.put(accountCurrency, share);
+            }
+            debits[i] = share;
 
-                user.addTransaction(TransactionFactory.createTransaction(TransactionTag.SPLIT_PAY,
-                        timestamp, List.of(iban), amount, currency));
+            double total = owed.merge(account, share, Double::sum);
+            if (account.getBalance() < total) {
+                outputBuilder.printStandardError("splitPayment",
+                        "Insufficient funds for account: " + iban, timestamp);
+                allFunded = false;
+            }
+        }
 
-                if (addRequestNode && "CLASSIC".equalsIgnoreCase(account.getAccountType())) {
-                    ClassicAccount classicAccount = (ClassicAccount) account;
-                    RequestNode requestNode = new RequestNode(amount, iban);
-                    user.getRequestQueue().add(requestNode);
-                }
-                return;
+        if (!allFound) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            Account account = accounts[i];
+            if (allFunded) {
+                account.setBalance(account.getBalance() - debits[i]);
+                account.getOwner().addTransaction(TransactionFactory.splitPay(timestamp,
+                        accountIBANs, amount, currency));
+            } else {
+                account.getOwner().addTransaction(TransactionFactory.failedSplitPay(
+                        timestamp, accountIBANs, amount, currency));
             }
         }
+    }
 
-        if (!accountFound) {
-            outputBuilder.printStandardError("splitPayment",
-                    "Account not found: " + iban, timestamp);
+    /**
+     * Finds the account of an equal split participant, of any type. The IBAN index is
+     * tried first, then the accounts of every user, which also matches aliases.
+     *
+     * @param iban the IBAN or alias given in the command
+     * @return the account, or null if there is none
+     */
+    private Account findAccount(final String iban) {
+        Account account = BankTeller.findAccountByIBAN(iban);
+        if (account != null) {
+            return account;
+        }
+        for (User user : users) {
+            account = BankTeller.findAccountByIBANOrAlias(user, iban);
+            if (account != null) {
+                return account;
+            }
         }
+        return null;
     }
 }
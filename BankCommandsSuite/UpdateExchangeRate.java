@@ -0,0 +1,48 @@
+package org.poo.BankCommandsSuite;
+
+import org.poo.BankTeller;
+import org.poo.OutputBuilder;
+import org.poo.RateSnapshot;
+import org.poo.fileio.CommandInput;
+
+/**
+ * Represents a command that sets the exchange rate between two currencies during the
+ * day. The rate (and its inverse) replaces the current one, or is added if the two
+ * currencies had no direct rate, and applies to every command after this one.
+ */
+public class UpdateExchangeRate implements BankCommand {
+    private final CommandInput commandInput;
+    private final OutputBuilder outputBuilder;
+
+    /**
+     * Constructs an UpdateExchangeRate command.
+     *
+     * @param commandInput the input data containing the currencies and the new rate
+     * @param outputBuilder the output builder for handling error messages
+     */
+    public UpdateExchangeRate(final CommandInput commandInput,
+                              final OutputBuilder outputBuilder) {
+        this.commandInput = commandInput;
+        this.outputBuilder = outputBuilder;
+    }
+
+    /**
+     * Executes the command: builds the next rate snapshot and publishes it.
+     */
+    @Override
+    public void execute() {
+        String from = commandInput.getFrom();
+        String to = commandInput.getTo();
+        double rate = commandInput.getRate();
+        int timestamp = commandInput.getTimestamp();
+
+        if (from == null || to == null || from.equalsIgnoreCase(to) || !(rate > 0)) {
+            outputBuilder.printStandardError("updateExchangeRate", "Invalid exchange rate",
+                    timestamp);
+            return;
+        }
+
+        RateSnapshot current = BankTeller.getPublishedRates();
+        BankTeller.publishRates(current.withRate(from, to, rate, timestamp));
+    }
+}
@@ -3,7 +3,6 @@ package org.poo.BankCommandsSuite;
 import org.poo.AccountsSuite.Account;
 import org.poo.BankTeller;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.User;
 import org.poo.PaymentPlanSuite.PaymentPlan;
 import org.poo.PaymentPlanSuite.PaymentPlanManager;
@@ -72,8 +71,7 @@ public class UpgradePlan implements BankCommand {
                     }
 
                     if (account.getBalance() < upgradeFeeInAccountCurrency) {
-                        user.addTransaction(TransactionFactory.createTransaction(
-                                TransactionTag.NO_FUNDS,
+                        user.addTransaction(TransactionFactory.noFunds(
                                 commandInput.getTimestamp(),
                                 "Insufficient funds for upgrade"
                         ));
@@ -84,12 +82,10 @@ public class UpgradePlan implements BankCommand {
 
                     user.setPaymentPlan(newPlan);
 
-                    user.addTransaction(TransactionFactory.createTransaction(
-                            TransactionTag.PLAN_UPGRADED,
+                    user.addTransaction(TransactionFactory.planUpgrade(
                             commandInput.getTimestamp(),
                             account.getIBAN(),
-                            newPlanType,
-                            upgradeFeeInAccountCurrency
+                            newPlanType
                     ));
 
                     return;
@@ -3,7 +3,6 @@ package org.poo.BankCommandsSuite;
 import org.poo.*;
 import org.poo.AccountsSuite.Account;
 import org.poo.TransactionsSuite.TransactionFactory;
-import org.poo.TransactionsSuite.TransactionTag;
 import org.poo.fileio.CommandInput;
 
 import java.time.LocalDate;
@@ -71,15 +70,13 @@ public class WithdrawSavings implements BankCommand {
 
             if (targetClassicAccount == null) {
                 user.addTransaction(TransactionFactory
-                        .createTransaction(TransactionTag.NO_CLASSIC,
-                                commandInput.getTimestamp(),
+                        .noClassic(commandInput.getTimestamp(),
                                 "You do not have a classic account."));
                 return;
             }
 
             if (!isUserOldEnough(user)) {
-                user.addTransaction(TransactionFactory.createTransaction(
-                        TransactionTag.UNDERAGE,
+                user.addTransaction(TransactionFactory.underage(
                         timestamp,
                         "You don't have the minimum age required."));
                 return;
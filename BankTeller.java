@@ -2,11 +2,20 @@ package org.poo;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.AccountsSuite.Account;
+import org.poo.AccountsSuite.CardStatusWatch;
+import org.poo.AccountsSuite.InterestAccrual;
+import org.poo.EventBusSuite.DomainEventBus;
 import org.poo.BankCommandsSuite.*;
 import org.poo.CashbackSuite.CashBackRules;
 import org.poo.CommerciantsSuite.Commerciant;
 import org.poo.CommerciantsSuite.CommerciantTransaction;
+import org.poo.FlightRecorderSuite.CommandEvent;
+import org.poo.FlightRecorderSuite.CurrencyConversionEvent;
+import org.poo.MetricsSuite.CommandMetrics;
+import org.poo.MetricsSuite.MetricStep;
+import org.poo.MetricsSuite.SpendingTotals;
 import org.poo.fileio.*;
+import org.poo.utils.CaseInsensitiveIndex;
 import org.poo.utils.Utils;
 
 import java.time.LocalDate;
@@ -17,21 +26,38 @@ import java.util.Map;
 
 
 public class BankTeller {
+    /**
+     * How long the end of a day waits for the event listeners to catch up.
+     */
+    private static final long EVENT_DRAIN_MILLIS = 1000;
+
     private final OutputBuilder outputBuilder;
     private static List<User> users;
-    private static List<ExchangeRates> exchangeRates;
+    private static volatile RateSnapshot publishedRates;
+    private static RateSnapshot rates;
     private static Map<String, Commerciant> commerciants;
     private static List<CommerciantTransaction> commerciantTransactions;
     public static List<ExtendedCommerciant> extendedCommerciants;
+    private static final CaseInsensitiveIndex<User> usersByEmail = new CaseInsensitiveIndex<>();
+    private static final Map<String, Account> accountsByIban = new HashMap<>();
+    private static final SplitCoordinator splitCoordinator = new SplitCoordinator();
     private int timestamp;
 
     public BankTeller() {
         this.outputBuilder = new OutputBuilder();
         this.users = new ArrayList<>();
-        this.exchangeRates = new ArrayList<>();
         this.commerciants = new HashMap<>();
         this.commerciantTransactions = new ArrayList<>();
         this.extendedCommerciants = new ArrayList<>();
+        usersByEmail.clear();
+        accountsByIban.clear();
+        splitCoordinator.clear();
+        ExtendedCommerciant.clearIndex();
+        InterestAccrual.reset();
+        CardStatusWatch.clear();
+        DomainEventBus.reset();
+        CommandMetrics.subscribe();
+        SpendingTotals.subscribe();
         this.timestamp = 0;
     }
 
@@ -57,8 +83,11 @@ public class BankTeller {
                     userInput.getOccupation()
             );
             users.add(user);
+            usersByEmail.put(user.getEmail(), user);
         }
 
+        List<ExchangeRates> exchangeRates = new ArrayList<>();
+        int ratesTimestamp = 0;
         for (ExchangeInput rateInput : inputData.getExchangeRates()) {
             ExchangeRates rate = new ExchangeRates();
             rate.setFrom(rateInput.getFrom());
@@ -71,8 +100,10 @@ public class BankTeller {
             inverseRate.setTo(rateInput.getFrom());
             inverseRate.setRate(1 / rateInput.getRate());
             exchangeRates.add(inverseRate);
-
+            ratesTimestamp = Math.max(ratesTimestamp, rateInput.getTimestamp());
         }
+        publishRates(RateSnapshot.of(exchangeRates, ratesTimestamp));
+        rates = publishedRates;
 
         for (CommerciantInput commerciantInput : inputData.getCommerciants()) {
             ExtendedCommerciant extendedCommerciant = new ExtendedCommerciant(
@@ -83,11 +114,22 @@ public class BankTeller {
                     commerciantInput.getCashbackStrategy()
             );
             extendedCommerciants.add(extendedCommerciant);
+            ExtendedCommerciant.index(extendedCommerciant);
         }
 
         for (CommandInput command : inputData.getCommands()) {
             String commandName = command.getCommand();
             timestamp++;
+            InterestAccrual.advanceTo(command.getTimestamp());
+            CardStatusWatch.advanceTo(command.getTimestamp());
+            DomainEventBus.advanceTo(command.getTimestamp());
+            splitCoordinator.advanceTo(command.getTimestamp());
+            rates = publishedRates;
+            long start = CommandMetrics.start();
+            CommandEvent event = new CommandEvent();
+            event.begin();
+            int outputSize = outputBuilder.getOutputCount();
+            int errorCount = outputBuilder.getErrorCount();
             switch (commandName) {
                 case "printUsers" -> {
                     PrintUsers printUsersCommand = new PrintUsers(users, outputBuilder, command);
@@ -143,7 +185,7 @@ public class BankTeller {
                 }
                 case "splitPayment" -> {
                     SplitPayment splitPaymentCommand = new SplitPayment(users,
-                            command, outputBuilder);
+                            command, outputBuilder, splitCoordinator);
                     splitPaymentCommand.execute();
                 }
                 case "report" -> {
@@ -160,6 +202,47 @@ public class BankTeller {
                             outputBuilder);
                     addInterestCommand.execute();
                 }
+                case "addInterestAll" -> {
+                    AddInterestAll addInterestAllCommand = new AddInterestAll(users, command);
+                    addInterestAllCommand.execute();
+                }
+                case "acceptSplitPayment" -> {
+                    if (SplitCoordinator.SETTLE) {
+                        AcceptSplitPayment acceptSplitPaymentCommand =
+                                new AcceptSplitPayment(command, splitCoordinator);
+                        acceptSplitPaymentCommand.execute();
+                    }
+                }
+                case "rejectSplitPayment" -> {
+                    if (SplitCoordinator.SETTLE) {
+                        RejectSplitPayment rejectSplitPaymentCommand =
+                                new RejectSplitPayment(command, splitCoordinator);
+                        rejectSplitPaymentCommand.execute();
+                    }
+                }
+                case "bulkAddAccounts" -> {
+                    BulkAddAccounts bulkAddAccountsCommand = new BulkAddAccounts(command);
+                    bulkAddAccountsCommand.execute();
+                }
+                case "bulkTransfer" -> {
+                    BulkTransfer bulkTransferCommand = new BulkTransfer(users, command,
+                            outputBuilder);
+                    bulkTransferCommand.execute();
+                }
+                case "checkAllCardStatuses" -> {
+                    CheckAllCardStatuses checkAllCardStatusesCommand =
+                            new CheckAllCardStatuses(command);
+                    checkAllCardStatusesCommand.execute();
+                }
+                case "netWorth" -> {
+                    NetWorth netWorthCommand = new NetWorth(users, command, outputBuilder);
+                    netWorthCommand.execute();
+                }
+                case "updateExchangeRate" -> {
+                    UpdateExchangeRate updateExchangeRateCommand =
+                            new UpdateExchangeRate(command, outputBuilder);
+                    updateExchangeRateCommand.execute();
+                }
                 case "changeInterestRate" -> {
                     ChangeInterestRate changeInterestRateCommand =
                             new ChangeInterestRate(users, command, outputBuilder);
@@ -183,8 +266,30 @@ public class BankTeller {
 
                 }
             }
+            CommandMetrics.record(commandName, start);
+            if (event.shouldCommit()) {
+                String outcome = CommandEvent.OK;
+                if (outputBuilder.getErrorCount() != errorCount) {
+                    outcome = CommandEvent.ERROR;
+                } else if (outputBuilder.getOutputCount() != outputSize) {
+                    outcome = CommandEvent.OUTPUT;
+                }
+                event.set(commandName, command.getTimestamp(), outcome);
+                event.commit();
+            }
         }
 
+        DomainEventBus.endOfDay(EVENT_DRAIN_MILLIS);
+    }
+
+    /**
+     * Streams the output of the following days to a writer, instead of collecting it
+     * in the output array.
+     *
+     * @param writer the writer of the output file
+     */
+    public void streamOutput(final OutputWriter writer) {
+        outputBuilder.streamTo(writer);
     }
 
     /**
@@ -208,12 +313,86 @@ public class BankTeller {
     public static double convertCurrency(final double amount,
                                          final String fromCurrency,
                                          final String toCurrency) {
-        double ans = convertCurrencyRecursive(amount, fromCurrency,
-                toCurrency, new ArrayList<>());
+        long start = CommandMetrics.start();
+        CurrencyConversionEvent event = new CurrencyConversionEvent();
+        event.begin();
+
+        ConversionPath conversionPath = rates.findPath(fromCurrency, toCurrency);
+        double ans = 0;
+        int pathLength = -1;
+        if (conversionPath.isResolved()) {
+            ans = conversionPath.apply(amount);
+            if (conversionPath.matchesWalk(amount, ans)) {
+                pathLength = conversionPath.length();
+            }
+        }
+        if (pathLength < 0) {
+            List<String> path = new ArrayList<>();
+            ans = convertCurrencyRecursive(amount, fromCurrency, toCurrency, path);
+            pathLength = path.size();
+        }
+
+        CommandMetrics.record(MetricStep.CURRENCY_CONVERSION, start);
+        if (event.shouldCommit()) {
+            event.set(fromCurrency, toCurrency, pathLength);
+            event.commit();
+        }
         return ans;
 
     }
 
+    /**
+     * Publishes a new set of exchange rates. Commands started from now on convert
+     * against it; the command running keeps the rates it started with.
+     *
+     * @param snapshot the new rates
+     */
+    public static void publishRates(final RateSnapshot snapshot) {
+        publishedRates = snapshot;
+    }
+
+    /**
+     * Retrieves the conversion vector into a currency for the rates of the running
+     * command.
+     *
+     * @param target the target currency
+     * @return the conversion vector
+     */
+    public static ConversionVector conversionVector(final String target) {
+        return rates.conversionVector(target);
+    }
+
+    /**
+     * Checks whether the rates of the running command know a currency.
+     *
+     * @param currency the currency
+     * @return true if some exchange rate converts from or to the currency
+     */
+    public static boolean isKnownCurrency(final String currency) {
+        return rates.hasCurrency(currency);
+    }
+
+    /**
+     * Retrieves the conversion path of a currency pair for the rates of the running
+     * command, so a caller converting many amounts of the same pair resolves it once.
+     *
+     * @param fromCurrency the source currency
+     * @param toCurrency the target currency
+     * @return the path; {@link #convertCurrency} is still needed when it is unresolved
+     * or does not match the walk for an amount
+     */
+    public static ConversionPath conversionPath(final String fromCurrency,
+                                                final String toCurrency) {
+        return rates.findPath(fromCurrency, toCurrency);
+    }
+
+    /**
+     * @return the most recently published exchange rates
+     */
+    public static RateSnapshot getPublishedRates() {
+        return publishedRates;
+    }
+
     /**
      * Recursively converts a given amount from one currency to another
      * based on defined exchange rates.
@@ -225,28 +404,33 @@ public class BankTeller {
      * @param fromCurrency     the currency code of the original amount (e.g., "USD").
      * @param toCurrency       the target currency code to which the amount will be converted
      *                        (e.g., "EUR").
-     * @param visitedCurrencies a list of visited currencies to avoid cycles during recursive
-     *                         conversion.
+     * @param visitedCurrencies collects the currencies the amount was converted into, in
+     *                         order, so its size is the length of the conversion path.
      * @return the equivalent amount in the target currency.
      */
     public static double convertCurrencyRecursive(final double amount,
                                                   final String fromCurrency,
                                                   final String toCurrency,
                                                   final List<String> visitedCurrencies) {
+        List<ExchangeRates> exchangeRates = rates.getRates();
         for (ExchangeRates rate : exchangeRates) {
             if (rate.getFrom().equalsIgnoreCase(fromCurrency)
                     && rate.getTo().equalsIgnoreCase(toCurrency)) {
+                visitedCurrencies.add(rate.getTo());
                 return amount * rate.getRate();
             }
         }
 
         for (ExchangeRates rate : exchangeRates) {
             if (rate.getFrom().equalsIgnoreCase(fromCurrency)) {
+                int pathLength = visitedCurrencies.size();
+                visitedCurrencies.add(rate.getTo());
                 double convertedAmount = convertCurrencyRecursive(amount * rate.getRate(),
                         rate.getTo(), toCurrency, visitedCurrencies);
                 if (convertedAmount != amount) {
                     return convertedAmount;
                 }
+                visitedCurrencies.subList(pathLength, visitedCurrencies.size()).clear();
             }
         }
 
@@ -256,17 +440,18 @@ public class BankTeller {
     /**
      * Searches for a user in the system by their email address.
      * The comparison is case-insensitive and trims any whitespace around the email.
+     * Users are indexed by email when the day starts, so this is a hash lookup.
      *
      * @param email the email address of the user to be searched
      * @return the User object if a matching email is found, or null if no match is found
      */
     public static User findUserByEmail(final String email) {
-        for (User user : users) {
-            if (user.getEmail().trim().equalsIgnoreCase(email.trim())) {
-                return user;
-            }
+        long start = CommandMetrics.start();
+        try {
+            return usersByEmail.get(email);
+        } finally {
+            CommandMetrics.record(MetricStep.ACCOUNT_LOOKUP, start);
         }
-        return null;
     }
 
     /**
@@ -279,14 +464,92 @@ public class BankTeller {
      * @return the account that matches the provided identifier, or null if no match is found.
      */
     public static Account findAccountByIBANOrAlias(final User user, final String identifier) {
-        for (Account account : user.getAccounts()) {
-            if (account.getIBAN().equals(identifier)
-                    || (account.getAlias() != null && account.getAlias()
-                            .equalsIgnoreCase(identifier))) {
-                return account;
+        long start = CommandMetrics.start();
+        try {
+            for (Account account : user.getAccounts()) {
+                if (account.getIBAN().equals(identifier)
+                        || (account.getAlias() != null && account.getAlias()
+                                .equalsIgnoreCase(identifier))) {
+                    return account;
+                }
+            }
+            return null;
+        } finally {
+            CommandMetrics.record(MetricStep.ACCOUNT_LOOKUP, start);
+        }
+    }
+
+    /**
+     * Adds an account to the IBAN index. Called by {@link User#addAccount}.
+     *
+     * @param account the account
+     */
+    public static void indexAccount(final Account account) {
+        accountsByIban.putIfAbsent(account.getIBAN(), account);
+    }
+
+    /**
+     * Adds several accounts to the IBAN index at once. The index is grown once for all
+     * of them; like {@link #indexAccount}, an IBAN already indexed keeps its account.
+     *
+     * @param accounts the accounts
+     */
+    public static void indexAccounts(final List<Account> accounts) {
+        Map<String, Account> batch = new HashMap<>(accounts.size() * 2);
+        for (Account account : accounts) {
+            if (!accountsByIban.containsKey(account.getIBAN())) {
+                batch.putIfAbsent(account.getIBAN(), account);
             }
         }
-        return null;
+        accountsByIban.putAll(batch);
+    }
+
+    /**
+     * Removes an account from the IBAN index. Called by {@link User#removeAccount}.
+     *
+     * @param account the account
+     */
+    public static void unindexAccount(final Account account) {
+        accountsByIban.remove(account.getIBAN(), account);
+    }
+
+    /**
+     * Finds an account of any user by its exact IBAN, with a hash lookup.
+     * Aliases are not indexed; use {@link #findAccountByIBANOrAlias} for those.
+     *
+     * @param iban the IBAN of the account
+     * @return the account, or null if no user has an account with that IBAN
+     */
+    public static Account findAccountByIBAN(final String iban) {
+        if (iban == null) {
+            return null;
+        }
+        long start = CommandMetrics.start();
+        try {
+            return accountsByIban.get(iban);
+        } finally {
+            CommandMetrics.record(MetricStep.ACCOUNT_LOOKUP, start);
+        }
+    }
+
+    /**
+     * Same lookup as {@link #findAccountByIBAN(String)}, but not timed, so several
+     * threads can call it at once as long as no command changes the index meanwhile.
+     *
+     * @param iban the IBAN of the account
+     * @return the account, or null if no user has an account with that IBAN
+     */
+    public static Account findIndexedAccount(final String iban) {
+        return iban == null ? null : accountsByIban.get(iban);
+    }
+
+    /**
+     * Returns the coordinator of the pending split payments.
+     *
+     * @return the split coordinator
+     */
+    public static SplitCoordinator getSplitCoordinator() {
+        return splitCoordinator;
     }
 
     /**
@@ -302,15 +565,29 @@ public class BankTeller {
             return null;
         }
 
-        for (User user : users) {
-            List<Account> accounts = user.getAccounts();
-            for (Account account : accounts) {
-                if (iban.equals(account.getIBAN())) {
-                    return account;
+        long start = CommandMetrics.start();
+        try {
+            for (User user : users) {
+                List<Account> accounts = user.getAccounts();
+                for (Account account : accounts) {
+                    if (iban.equals(account.getIBAN())) {
+                        return account;
+                    }
                 }
             }
+            return null;
+        } finally {
+            CommandMetrics.record(MetricStep.ACCOUNT_LOOKUP, start);
         }
-        return null;
+    }
+
+    /**
+     * Retrieves the users loaded for the current day.
+     *
+     * @return the list of users known to the bank teller.
+     */
+    public static List<User> getUsers() {
+        return users;
     }
 
     public static Map<String, Commerciant> getCommerciants() {
@@ -1,5 +1,7 @@
 package org.poo.CardsSuite;
 
+import org.poo.User;
+
 /**
  * Represents a generic card interface with methods to get and set the card's status.
  * The implementation of this interface should define the specific behavior for card types.
@@ -33,4 +35,12 @@ public interface Card {
      * @return The tag of the card as a String.
      */
     String getTag();
+
+    /**
+     * Sets the user who owns the card. Changes to the card mark the owner as changed,
+     * so printUsers rebuilds its output.
+     *
+     * @param owner The owner of the card.
+     */
+    void setOwner(User owner);
 }
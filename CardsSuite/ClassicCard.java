@@ -1,5 +1,6 @@
 package org.poo.CardsSuite;
 
+import org.poo.User;
 import org.poo.utils.Utils;
 
 /**
@@ -12,6 +13,7 @@ public class ClassicCard implements Card {
     private String cardNumber;
     private String status;
     private String tag;
+    private User owner;
 
     /**
      * Constructs a new {@code ClassicCard} with a generated card number,
@@ -52,6 +54,9 @@ public class ClassicCard implements Card {
     @Override
     public void setStatus(final String status) {
         this.status = status;
+        if (owner != null) {
+            owner.markChanged();
+        }
     }
 
     /**
@@ -63,4 +68,14 @@ public class ClassicCard implements Card {
     public String getTag() {
         return tag;
     }
+
+    /**
+     * Sets the user who owns this {@code ClassicCard}.
+     *
+     * @param owner The owner of the card.
+     */
+    @Override
+    public void setOwner(final User owner) {
+        this.owner = owner;
+    }
 }
@@ -1,5 +1,6 @@
 package org.poo.CardsSuite;
 
+import org.poo.User;
 import org.poo.utils.Utils;
 
 /**
@@ -12,6 +13,7 @@ public class OneTimeCard implements Card {
     private String cardNumber;
     private String status;
     private String tag;
+    private User owner;
 
     /**
      * Constructs a new {@code OneTimeCard} with a generated card number,
@@ -51,6 +53,9 @@ public class OneTimeCard implements Card {
     @Override
     public void setStatus(final String status) {
         this.status = status;
+        if (owner != null) {
+            owner.markChanged();
+        }
     }
 
     /**
@@ -63,11 +68,24 @@ public class OneTimeCard implements Card {
         return tag;
     }
 
+    /**
+     * Sets the user who owns this {@code OneTimeCard}.
+     *
+     * @param owner The owner of the card.
+     */
+    @Override
+    public void setOwner(final User owner) {
+        this.owner = owner;
+    }
+
     /**
      * Changes the card number of this {@code OneTimeCard} by generating a new card number
      * using the {@code Utils.generateCardNumber()} utility method.
      */
     public void changeCardNumber() {
         this.cardNumber = Utils.generateCardNumber();
+        if (owner != null) {
+            owner.markChanged();
+        }
     }
 }
@@ -1,6 +1,9 @@
 package org.poo.CashbackSuite;
 
 import org.poo.ExtendedCommerciant;
+import org.poo.FlightRecorderSuite.CashbackEvent;
+import org.poo.MetricsSuite.CommandMetrics;
+import org.poo.MetricsSuite.MetricStep;
 import org.poo.User;
 
 import java.util.*;
@@ -14,33 +17,28 @@ public class CashBackRules {
 
     /**
      * Represents cashback data associated with an account, tracking merchant category
-     * transaction counts, discounts usage, and total spending.
+     * transaction counts, discounts usage, and total spending. Counts and flags are
+     * kept in arrays indexed by category ordinal, so updating them never boxes.
      */
     public static class AccountCashbackData {
-        private Map<CommerciantCategory, Integer> transactionCounts;
-        private Map<CommerciantCategory, Boolean> discountsUsed;
+        private final int[] transactionCounts;
+        private final boolean[] discountsUsed;
         private double totalSpent;
 
         public AccountCashbackData() {
-            this.transactionCounts = new EnumMap<>(CommerciantCategory.class);
-            this.discountsUsed = new EnumMap<>(CommerciantCategory.class);
+            this.transactionCounts = new int[CommerciantCategory.values().length];
+            this.discountsUsed = new boolean[CommerciantCategory.values().length];
             this.totalSpent = 0;
-
-            for (CommerciantCategory category : CommerciantCategory.values()) {
-                transactionCounts.put(category, 0);
-                discountsUsed.put(category, false);
-            }
         }
 
         /**
-         * Increments the transaction count for a specified merchant category. If the category
-         * is not already present in the transaction counts, it initializes the count to 1.
+         * Increments the transaction count for a specified merchant category.
          *
          * @param category the MerchantCategory for which the transaction count should be
          *                incremented
          */
         public void incrementTransactionCount(final CommerciantCategory category) {
-            transactionCounts.put(category, transactionCounts.getOrDefault(category, 0) + 1);
+            transactionCounts[category.ordinal()]++;
         }
 
         /**
@@ -53,29 +51,32 @@ public class CashBackRules {
         }
 
         /**
-         * Retrieves a mapping of merchant categories to the respective transaction counts
-         * for each category. The returned map tracks how many transactions have been made
-         * in each merchant category and provides a summary of the transaction activity.
+         * Retrieves the number of transactions made in a merchant category.
          *
-         * @return a map where the keys are instances of MerchantCategory and the values
-         *         are integers representing the corresponding transaction counts.
+         * @param category the merchant category
+         * @return the transaction count for the category
          */
-        public Map<CommerciantCategory, Integer> getTransactionCounts() {
-            return transactionCounts;
+        public int getTransactionCount(final CommerciantCategory category) {
+            return transactionCounts[category.ordinal()];
         }
 
+        /**
+         * Tells whether the one-time discount of a merchant category was already used.
+         *
+         * @param category the merchant category
+         * @return true if the discount has been used
+         */
+        public boolean isDiscountUsed(final CommerciantCategory category) {
+            return discountsUsed[category.ordinal()];
+        }
 
         /**
-         * Retrieves a mapping of merchant categories to a boolean flag indicating
-         * whether a discount has been used for each category. The returned map helps
-         * track which categories have already utilized discounts during transactions.
+         * Marks the one-time discount of a merchant category as used.
          *
-         * @return a map where the keys are instances of MerchantCategory and the values
-         *         are booleans indicating whether a discount has been used for the
-         *         respective category.
+         * @param category the merchant category
          */
-        public Map<CommerciantCategory, Boolean> getDiscountsUsed() {
-            return discountsUsed;
+        public void markDiscountUsed(final CommerciantCategory category) {
+            discountsUsed[category.ordinal()] = true;
         }
 
         /**
@@ -107,14 +108,18 @@ public class CashBackRules {
     public static double calculateCashback(final String accountIBAN,
             final User user, final ExtendedCommerciant commerciant,
                                            final double transactionAmount) {
+        long start = CommandMetrics.start();
+        CashbackEvent event = new CashbackEvent();
+        event.begin();
 
         AccountCashbackData data = getCashbackDataForAccount(accountIBAN);
 
         CommerciantCategory category = getMerchantCategory(commerciant);
 
-        CashbackStrategy spendingStrategy = new SpendingThresholdCashbackStrategy(user
+        CashbackStrategy spendingStrategy = SpendingThresholdCashbackStrategy.forPlan(user
                 .getPaymentPlan().getType());
-        CashbackStrategy transactionStrategy = new TransactionCountCashbackStrategy(category);
+        CashbackStrategy transactionStrategy = TransactionCountCashbackStrategy
+                .forCategory(category);
 
         double cashbackFromSpending = spendingStrategy.calculateCashback(data,
                 transactionAmount, accountIBAN);
@@ -125,11 +130,18 @@ public class CashBackRules {
         data.addSpending(transactionAmount);
         updateCashbackDataForAccount(accountIBAN, data);
 
-        return Math.max(cashbackFromSpending, cashbackFromTransactions);
+        double cashback = Math.max(cashbackFromSpending, cashbackFromTransactions);
+        CommandMetrics.record(MetricStep.CASHBACK_CALCULATION, start);
+        if (event.shouldCommit()) {
+            event.set(accountIBAN, commerciant.getName(), transactionAmount, cashback);
+            event.commit();
+        }
+        return cashback;
     }
 
     /**
      * Determines the merchant category for the given commerciant based on its type.
+     * The category is resolved once, when the commerciant is created.
      *
      * @param commerciant the ExtendedCommerciant object, representing the merchant
      *                    whose type will be mapped to a MerchantCategory.
@@ -139,19 +151,12 @@ public class CashBackRules {
      */
     public static CommerciantCategory getMerchantCategory(
             final ExtendedCommerciant commerciant) {
-        String type = commerciant.getType().trim().toLowerCase();
-
-        switch (type) {
-            case "food":
-                return CommerciantCategory.FOOD;
-            case "clothes":
-                return CommerciantCategory.CLOTHES;
-            case "tech":
-                return CommerciantCategory.TECH;
-            default:
-                throw new IllegalArgumentException("Unknown category "
-                        + type);
+        CommerciantCategory category = commerciant.getCategory();
+        if (category == null) {
+            throw new IllegalArgumentException("Unknown category "
+                    + commerciant.getType().trim().toLowerCase());
         }
+        return category;
     }
 
     /**
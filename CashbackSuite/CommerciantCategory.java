@@ -14,5 +14,27 @@ package org.poo.CashbackSuite;
  * type of merchant involved and to determine applicable cashback or discount rules.
  */
 public enum CommerciantCategory {
-    FOOD, CLOTHES, TECH
+    FOOD, CLOTHES, TECH;
+
+    /**
+     * Maps a commerciant type from the input (e.g. "Food") to its category.
+     *
+     * @param type the commerciant type, compared ignoring case and surrounding whitespace
+     * @return the matching category, or null if the type is unknown
+     */
+    public static CommerciantCategory fromType(final String type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type.trim().toLowerCase()) {
+            case "food":
+                return FOOD;
+            case "clothes":
+                return CLOTHES;
+            case "tech":
+                return TECH;
+            default:
+                return null;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.poo.CashbackSuite;
 
 import org.poo.MagicNumbers;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -37,7 +38,12 @@ public class SpendingThresholdCashbackStrategy implements CashbackStrategy {
             "gold", 0.005
     );
 
+    private static final Map<String, SpendingThresholdCashbackStrategy> BY_PLAN = new HashMap<>();
+
     private final String planType;
+    private final Double bigRate;
+    private final Double mediumRate;
+    private final Double smallRate;
 
     /**
      * Constructs a new {@code SpendingThresholdCashbackStrategy} with the specified
@@ -49,6 +55,25 @@ public class SpendingThresholdCashbackStrategy implements CashbackStrategy {
      */
     public SpendingThresholdCashbackStrategy(final String planType) {
         this.planType = planType.toLowerCase();
+        this.bigRate = BIG.get(this.planType);
+        this.mediumRate = MEDIUM.get(this.planType);
+        this.smallRate = SMALL.get(this.planType);
+    }
+
+    /**
+     * Returns the shared strategy instance for a payment plan type. The strategy is
+     * stateless, so one instance per plan type is enough.
+     *
+     * @param planType the type of payment plan
+     * @return the strategy for the plan type
+     */
+    public static SpendingThresholdCashbackStrategy forPlan(final String planType) {
+        SpendingThresholdCashbackStrategy strategy = BY_PLAN.get(planType);
+        if (strategy == null) {
+            strategy = new SpendingThresholdCashbackStrategy(planType);
+            BY_PLAN.put(planType, strategy);
+        }
+        return strategy;
     }
 
     /**
@@ -72,14 +97,14 @@ public class SpendingThresholdCashbackStrategy implements CashbackStrategy {
         data.addSpending(transactionAmount);
 
         if (data.getTotalSpent() >= MagicNumbers.MN500
-                && BIG.containsKey(planType)) {
-            cashback = BIG.get(planType) * transactionAmount;
+                && bigRate != null) {
+            cashback = bigRate * transactionAmount;
         } else if (data.getTotalSpent() >= MagicNumbers.MN300
-                && MEDIUM.containsKey(planType)) {
-            cashback = MEDIUM.get(planType) * transactionAmount;
+                && mediumRate != null) {
+            cashback = mediumRate * transactionAmount;
         } else if (data.getTotalSpent() >= MagicNumbers.MN100
-                && SMALL.containsKey(planType)) {
-            cashback = SMALL.get(planType) * transactionAmount;
+                && smallRate != null) {
+            cashback = smallRate * transactionAmount;
         }
         return cashback;
     }
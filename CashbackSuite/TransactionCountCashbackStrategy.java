@@ -10,6 +10,25 @@ public class TransactionCountCashbackStrategy implements CashbackStrategy {
             10, Map.of(CommerciantCategory.TECH, 0.1)
     );
 
+    private static final int[] THRESHOLDS = new int[CommerciantCategory.values().length];
+    private static final double[] RATES = new double[CommerciantCategory.values().length];
+    private static final TransactionCountCashbackStrategy[] BY_CATEGORY =
+            new TransactionCountCashbackStrategy[CommerciantCategory.values().length];
+
+    static {
+        for (CommerciantCategory category : CommerciantCategory.values()) {
+            THRESHOLDS[category.ordinal()] = -1;
+            BY_CATEGORY[category.ordinal()] = new TransactionCountCashbackStrategy(category);
+        }
+        for (Map.Entry<Integer, Map<CommerciantCategory, Double>> entry
+                : transactionThresholds.entrySet()) {
+            for (Map.Entry<CommerciantCategory, Double> rate : entry.getValue().entrySet()) {
+                THRESHOLDS[rate.getKey().ordinal()] = entry.getKey();
+                RATES[rate.getKey().ordinal()] = rate.getValue();
+            }
+        }
+    }
+
     private final CommerciantCategory category;
 
     /**
@@ -24,6 +43,18 @@ public class TransactionCountCashbackStrategy implements CashbackStrategy {
         this.category = category;
     }
 
+    /**
+     * Returns the shared strategy instance for a merchant category. The strategy is
+     * stateless, so one instance per category is enough.
+     *
+     * @param category the merchant category
+     * @return the strategy for the category
+     */
+    public static TransactionCountCashbackStrategy forCategory(
+            final CommerciantCategory category) {
+        return BY_CATEGORY[category.ordinal()];
+    }
+
     /**
      * Calculates the cashback for a given transaction based on the transaction amount,
      * account details, and predefined cashback rules.
@@ -40,17 +71,12 @@ public class TransactionCountCashbackStrategy implements CashbackStrategy {
                                     final String account) {
         double cashback = 0.0;
 
-        int transactionCount = data.getTransactionCounts().getOrDefault(category, 0);
+        int transactionCount = data.getTransactionCount(category);
+        int threshold = THRESHOLDS[category.ordinal()];
 
-        for (int threshold : transactionThresholds.keySet()) {
-            Map<CommerciantCategory, Double> categoryMap = transactionThresholds.get(threshold);
-            if (categoryMap != null && categoryMap.containsKey(category)) {
-                if (transactionCount >= threshold && !data.getDiscountsUsed().get(category)) {
-                    cashback = categoryMap.get(category) * transactionAmount;
-                    data.getDiscountsUsed().put(category, true);
-                    break;
-                }
-            }
+        if (threshold >= 0 && transactionCount >= threshold && !data.isDiscountUsed(category)) {
+            cashback = RATES[category.ordinal()] * transactionAmount;
+            data.markDiscountUsed(category);
         }
 
         data.incrementTransactionCount(category);
@@ -0,0 +1,140 @@
+package org.poo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chain of exchange rates {@link BankTeller#convertCurrencyRecursive} walks for a
+ * currency pair, resolved once so later conversions are a few multiplications.
+ *
+ * The recursive walk takes the direct rate when there is one and otherwise follows
+ * the first rate leaving the current currency, so its path depends only on the pair.
+ * The rates are applied one after the other, in the same order as the walk, which
+ * gives exactly the same result. The only exception is when the converted amount
+ * comes out equal to an intermediate amount (e.g. an amount of 0); the walk then
+ * backtracks, so {@link #matchesWalk} reports it and the caller falls back to it.
+ */
+public final class ConversionPath {
+    /**
+     * Marks a pair whose walk loops forever; the caller has to use the recursive walk.
+     */
+    public static final ConversionPath UNRESOLVED = new ConversionPath(null, 0);
+
+    private final double[] rates;
+    private final int walkedHops;
+
+    private ConversionPath(final double[] rates, final int walkedHops) {
+        this.rates = rates;
+        this.walkedHops = walkedHops;
+    }
+
+    /**
+     * Resolves the path the recursive walk takes from one currency to another.
+     *
+     * @param exchangeRates the exchange rates, in the order the walk scans them
+     * @param fromCurrency the source currency
+     * @param toCurrency the target currency
+     * @return the path, or {@link #UNRESOLVED} if the walk never ends
+     */
+    public static ConversionPath resolve(final List<ExchangeRates> exchangeRates,
+                                         final String fromCurrency, final String toCurrency) {
+        List<String> visited = new ArrayList<>();
+        List<Double> chain = new ArrayList<>();
+        String current = fromCurrency;
+        boolean direct = false;
+
+        while (!direct) {
+            for (String currency : visited) {
+                if (currency.equalsIgnoreCase(current)) {
+                    return UNRESOLVED;
+                }
+            }
+            visited.add(current);
+
+            ExchangeRates next = null;
+            for (ExchangeRates rate : exchangeRates) {
+                if (rate.getFrom().equalsIgnoreCase(current)
+                        && rate.getTo().equalsIgnoreCase(toCurrency)) {
+                    next = rate;
+                    direct = true;
+                    break;
+                }
+            }
+            if (next == null) {
+                for (ExchangeRates rate : exchangeRates) {
+                    if (rate.getFrom().equalsIgnoreCase(current)) {
+                        next = rate;
+                        break;
+                    }
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            chain.add(next.getRate());
+            current = next.getTo();
+        }
+
+        double[] rates = new double[chain.size()];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = chain.get(i);
+        }
+        return new ConversionPath(rates, direct ? rates.length - 1 : rates.length);
+    }
+
+    /**
+     * @return false if the walk for this pair never ends
+     */
+    public boolean isResolved() {
+        return rates != null;
+    }
+
+    /**
+     * @return the number of exchange rates applied by a conversion
+     */
+    public int length() {
+        return rates.length;
+    }
+
+    /**
+     * @return the product of the rates on the path, i.e. the value of one unit of the
+     * source currency in the target currency
+     */
+    public double factor() {
+        return apply(1.0);
+    }
+
+    /**
+     * Converts an amount along the path.
+     *
+     * @param amount the amount to convert
+     * @return the converted amount
+     */
+    public double apply(final double amount) {
+        double converted = amount;
+        for (double rate : rates) {
+            converted *= rate;
+        }
+        return converted;
+    }
+
+    /**
+     * Checks that the recursive walk would not have backtracked for this amount, i.e.
+     * that the result differs from the amount at every step the walk took without a
+     * direct rate.
+     *
+     * @param amount the amount that was converted
+     * @param converted the result of {@link #apply(double)}
+     * @return true if {@code converted} is exactly what the recursive walk returns
+     */
+    public boolean matchesWalk(final double amount, final double converted) {
+        double intermediate = amount;
+        for (int i = 0; i < walkedHops; i++) {
+            if (converted == intermediate) {
+                return false;
+            }
+            intermediate *= rates[i];
+        }
+        return true;
+    }
+}
@@ -0,0 +1,71 @@
+package org.poo;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The factor that converts one unit of every known currency into a target currency,
+ * taken from the {@link ConversionPath} of each pair. Valuing a set of balances in the
+ * target currency is then one multiplication per balance, with no lookup in the rates.
+ * Vectors are built once per target and rate snapshot (see
+ * {@link RateSnapshot#conversionVector}) and are immutable, so they can be read from
+ * several threads.
+ */
+public final class ConversionVector {
+    private final String target;
+    private final Map<String, Double> factors;
+
+    /**
+     * Creates a conversion vector.
+     *
+     * @param target the target currency
+     * @param factors the factor of every known currency, keyed by its upper case code;
+     *                NaN for currencies the path cache cannot convert
+     */
+    ConversionVector(final String target, final Map<String, Double> factors) {
+        this.target = target;
+        this.factors = factors;
+    }
+
+    /**
+     * @return the target currency
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Converts an amount into the target currency. Amounts in a currency no rate
+     * mentions are converted with the recursive walk, like convertCurrency does; the
+     * walk finds no rate and ends at once. Amounts in a currency whose walk to the
+     * target never ends (no path to it) are never walked: they come out as NaN.
+     *
+     * @param amount the amount to convert
+     * @param currency the currency of the amount
+     * @return the amount in the target currency, or NaN if it cannot be converted
+     */
+    public double convert(final double amount, final String currency) {
+        if (currency.equalsIgnoreCase(target)) {
+            return amount;
+        }
+        Double factor = factors.get(currency.toUpperCase(Locale.ROOT));
+        if (factor != null) {
+            return amount * factor;
+        }
+        return BankTeller.convertCurrencyRecursive(amount, currency, target,
+                new ArrayList<>());
+    }
+
+    /**
+     * @param currency a currency
+     * @return false if amounts in the currency cannot be converted into the target
+     */
+    public boolean canConvert(final String currency) {
+        if (currency.equalsIgnoreCase(target)) {
+            return true;
+        }
+        Double factor = factors.get(currency.toUpperCase(Locale.ROOT));
+        return factor == null || !factor.isNaN();
+    }
+}
@@ -0,0 +1,107 @@
+package org.poo.EventBusSuite;
+
+import org.poo.TransactionsSuite.TransactionTag;
+
+/**
+ * One change published on the {@link DomainEventBus}.
+ *
+ * Events are the pre-allocated slots of the bus's ring buffer and are overwritten once
+ * the ring wraps around, so a listener must copy what it needs before returning from
+ * {@link DomainEventListener#onEvent}. They only carry values (emails, IBANs, amounts),
+ * never the accounts or users themselves, which belong to the command thread.
+ */
+public final class DomainEvent {
+    private volatile long sequence = -1;
+    private DomainEventType type;
+    private int timestamp;
+    private String email;
+    private String iban;
+    private String detail;
+    private TransactionTag transactionTag;
+    private double oldValue;
+    private double newValue;
+
+    void set(final DomainEventType eventType, final int eventTimestamp,
+             final String eventEmail, final String eventIban, final String eventDetail,
+             final TransactionTag tag, final double eventOldValue,
+             final double eventNewValue) {
+        this.type = eventType;
+        this.timestamp = eventTimestamp;
+        this.email = eventEmail;
+        this.iban = eventIban;
+        this.detail = eventDetail;
+        this.transactionTag = tag;
+        this.oldValue = eventOldValue;
+        this.newValue = eventNewValue;
+    }
+
+    void copyFrom(final DomainEvent other) {
+        set(other.type, other.timestamp, other.email, other.iban, other.detail,
+                other.transactionTag, other.oldValue, other.newValue);
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(final long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the kind of change
+     */
+    public DomainEventType getType() {
+        return type;
+    }
+
+    /**
+     * @return the timestamp of the command that made the change
+     */
+    public int getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the email of the user concerned, or null
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return the IBAN of the account concerned, or null
+     */
+    public String getIban() {
+        return iban;
+    }
+
+    /**
+     * @return the currency, card number, plan type, command or step name, depending on
+     * the type, or null
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * @return the tag of the added transaction, or null
+     */
+    public TransactionTag getTransactionTag() {
+        return transactionTag;
+    }
+
+    /**
+     * @return the value before the change (e.g. the old balance)
+     */
+    public double getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return the value after the change (e.g. the new balance)
+     */
+    public double getNewValue() {
+        return newValue;
+    }
+}
@@ -0,0 +1,381 @@
+package org.poo.EventBusSuite;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.TransactionsSuite.Transaction;
+import org.poo.TransactionsSuite.TransactionTag;
+import org.poo.User;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process bus for changes of accounts, cards, plans and transaction histories,
+ * so derived state (indexes, caches, aggregates, metrics) can be kept up to date
+ * incrementally instead of being recomputed from all users.
+ *
+ * Events are written into a ring of pre-allocated {@link DomainEvent} slots (size
+ * {@code -Dpoo.events.buffer}, default {@value #DEFAULT_CAPACITY}), so publishing
+ * allocates nothing and never waits: it is a few field writes guarded by the slot's
+ * sequence number, like a seqlock. Every listener is registered for a set of
+ * {@link DomainEventType}s and runs on its own daemon thread, reading the ring at its
+ * own pace. A listener that falls more than a ring behind does not hold the commands
+ * back; it is told how many events it lost through {@link DomainEventListener#onOverrun}
+ * and continues with the oldest event still in the ring. When nobody is subscribed to
+ * a type, publishing it costs a single volatile read.
+ *
+ * Only the command thread publishes. BankTeller resets the bus for every bank, and at
+ * the end of every day publishes {@link DomainEventType#DAY_ENDED} and waits for the
+ * listeners through {@link #endOfDay}. A listener that throws does not stop its thread:
+ * the first exception is kept by its {@link Subscription} and rethrown on the command
+ * thread by the next {@link #endOfDay}, so a failed listener fails the run instead of
+ * going unnoticed.
+ *
+ * The subscribers are the command latency histograms and the spending totals of the
+ * MetricsSuite, which tolerate being fed late and, rarely, losing events.
+ */
+public final class DomainEventBus {
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    private static final DomainEvent[] RING = createRing();
+    private static final int MASK = RING.length - 1;
+    private static final List<Subscription> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+    private static volatile int subscribedTypes;
+    private static volatile long cursor = -1;
+    private static int now;
+
+    private DomainEventBus() {
+    }
+
+    private static DomainEvent[] createRing() {
+        int requested = Integer.getInteger("poo.events.buffer", DEFAULT_CAPACITY);
+        int capacity = Integer.highestOneBit(Math.max(2, requested - 1)) << 1;
+        DomainEvent[] ring = new DomainEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new DomainEvent();
+        }
+        return ring;
+    }
+
+    /**
+     * Registers a listener for some event types and starts its thread.
+     *
+     * @param listener the listener
+     * @param first a type the listener receives
+     * @param rest more types the listener receives
+     * @return the subscription, to be passed to {@link #unsubscribe}
+     */
+    public static Subscription subscribe(final DomainEventListener listener,
+                                         final DomainEventType first,
+                                         final DomainEventType... rest) {
+        int types = first.bit();
+        for (DomainEventType type : rest) {
+            types |= type.bit();
+        }
+        Subscription subscription = new Subscription(listener, types, cursor);
+        SUBSCRIPTIONS.add(subscription);
+        updateSubscribedTypes();
+        subscription.start();
+        return subscription;
+    }
+
+    /**
+     * Stops a listener's thread and removes it from the bus.
+     *
+     * @param subscription the subscription returned by {@link #subscribe}
+     */
+    public static void unsubscribe(final Subscription subscription) {
+        SUBSCRIPTIONS.remove(subscription);
+        updateSubscribedTypes();
+        subscription.stop();
+    }
+
+    /**
+     * Stops every listener and empties the ring, for a new bank.
+     */
+    public static void reset() {
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            unsubscribe(subscription);
+            subscription.join();
+        }
+        for (DomainEvent slot : RING) {
+            slot.setSequence(-1);
+        }
+        cursor = -1;
+        now = 0;
+    }
+
+    /**
+     * Ends a day: publishes {@link DomainEventType#DAY_ENDED}, waits until the listeners
+     * handled it and rethrows the first exception a listener threw since the previous
+     * day.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if all listeners caught up in time
+     */
+    public static boolean endOfDay(final long timeoutMillis) {
+        if ((subscribedTypes & DomainEventType.DAY_ENDED.bit()) != 0) {
+            publish(DomainEventType.DAY_ENDED, null, null, null, null, 0, 0);
+        }
+        boolean drained = awaitDrained(timeoutMillis);
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            RuntimeException failure = subscription.takeFailure();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Waits until every listener has handled every event published so far, e.g. at the
+     * end of a day before the output is written.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if all listeners caught up in time
+     */
+    public static boolean awaitDrained(final long timeoutMillis) {
+        long target = cursor;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            while (subscription.handled < target) {
+                if (System.nanoTime() - deadline > 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to the timestamp of the command being run, which is the
+     * timestamp of the events it publishes.
+     *
+     * @param timestamp the timestamp of the command
+     */
+    public static void advanceTo(final int timestamp) {
+        now = timestamp;
+    }
+
+    /**
+     * Publishes a balance change.
+     *
+     * @param account the account
+     * @param oldBalance the balance before the change
+     * @param newBalance the balance after the change
+     */
+    public static void balanceChanged(final Account account, final double oldBalance,
+                                      final double newBalance) {
+        if ((subscribedTypes & DomainEventType.BALANCE_CHANGED.bit()) != 0) {
+            publish(DomainEventType.BALANCE_CHANGED, account.getEmail(), account.getIBAN(),
+                    account.getCurrency(), null, oldBalance, newBalance);
+        }
+    }
+
+    /**
+     * Publishes the addition of a card.
+     *
+     * @param account the account the card was added to
+     * @param cardNumber the number of the card
+     */
+    public static void cardAdded(final Account account, final String cardNumber) {
+        if ((subscribedTypes & DomainEventType.CARD_ADDED.bit()) != 0) {
+            publish(DomainEventType.CARD_ADDED, account.getEmail(), account.getIBAN(),
+                    cardNumber, null, 0, 0);
+        }
+    }
+
+    /**
+     * Publishes a change of payment plan.
+     *
+     * @param user the user
+     * @param planType the new plan type
+     */
+    public static void planChanged(final User user, final String planType) {
+        if ((subscribedTypes & DomainEventType.PLAN_CHANGED.bit()) != 0) {
+            publish(DomainEventType.PLAN_CHANGED, user.getEmail(), null, planType, null,
+                    0, 0);
+        }
+    }
+
+    /**
+     * Publishes the addition of a transaction to a user's history.
+     *
+     * @param user the user
+     * @param transaction the transaction
+     */
+    public static void transactionAdded(final User user, final Transaction transaction) {
+        if ((subscribedTypes & DomainEventType.TRANSACTION_ADDED.bit()) != 0) {
+            publish(DomainEventType.TRANSACTION_ADDED, user.getEmail(), null, null,
+                    transaction.getTransactionTag(), 0, 0);
+        }
+    }
+
+    /**
+     * Publishes the latency of a command.
+     *
+     * @param command the command name
+     * @param elapsedNanos the time the command took
+     */
+    public static void commandTimed(final String command, final long elapsedNanos) {
+        if ((subscribedTypes & DomainEventType.COMMAND_TIMED.bit()) != 0) {
+            publish(DomainEventType.COMMAND_TIMED, null, null, command, null, 0,
+                    elapsedNanos);
+        }
+    }
+
+    /**
+     * Publishes the latency of a command sub-step.
+     *
+     * @param step the name of the step
+     * @param elapsedNanos the time the step took
+     */
+    public static void stepTimed(final String step, final long elapsedNanos) {
+        if ((subscribedTypes & DomainEventType.STEP_TIMED.bit()) != 0) {
+            publish(DomainEventType.STEP_TIMED, null, null, step, null, 0, elapsedNanos);
+        }
+    }
+
+    private static void publish(final DomainEventType type, final String email,
+                                final String iban, final String detail,
+                                final TransactionTag tag,
+                                final double oldValue, final double newValue) {
+        long sequence = cursor + 1;
+        DomainEvent slot = RING[(int) sequence & MASK];
+        slot.setSequence(-1);
+        VarHandle.storeStoreFence();
+        slot.set(type, now, email, iban, detail, tag, oldValue, newValue);
+        slot.setSequence(sequence);
+        cursor = sequence;
+    }
+
+    private static void updateSubscribedTypes() {
+        int types = 0;
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            types |= subscription.types;
+        }
+        subscribedTypes = types;
+    }
+
+    /**
+     * A listener registered on the bus, with the thread that feeds it.
+     */
+    public static final class Subscription implements Runnable {
+        private final DomainEventListener listener;
+        private final int types;
+        private final DomainEvent scratch = new DomainEvent();
+        private final Thread thread;
+        private volatile long handled;
+        private volatile boolean running = true;
+        private volatile RuntimeException failure;
+
+        private Subscription(final DomainEventListener listener, final int types,
+                             final long start) {
+            this.listener = listener;
+            this.types = types;
+            this.handled = start;
+            this.thread = new Thread(this,
+                    "domain-events-" + listener.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+        }
+
+        private void join() {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Returns the first exception the listener threw since the previous call, and
+         * forgets it.
+         *
+         * @return the exception, or null if the listener did not fail
+         */
+        public RuntimeException takeFailure() {
+            RuntimeException taken = failure;
+            if (taken != null) {
+                failure = null;
+            }
+            return taken;
+        }
+
+        private void fail(final RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        /**
+         * Reads the ring and feeds the listener until the subscription is stopped.
+         */
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                long next = handled + 1;
+                long published = cursor;
+                if (next > published) {
+                    if (++idle > SPINS_BEFORE_PARK) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    } else {
+                        Thread.onSpinWait();
+                    }
+                    continue;
+                }
+                idle = 0;
+
+                long oldest = published - RING.length + 1;
+                if (next < oldest) {
+                    overrun(oldest - next);
+                    continue;
+                }
+
+                DomainEvent slot = RING[(int) next & MASK];
+                if (slot.getSequence() != next) {
+                    continue;
+                }
+                scratch.copyFrom(slot);
+                VarHandle.acquireFence();
+                if (slot.getSequence() != next) {
+                    continue;
+                }
+
+                if ((scratch.getType().bit() & types) != 0) {
+                    try {
+                        listener.onEvent(scratch);
+                    } catch (RuntimeException e) {
+                        fail(e);
+                    }
+                }
+                handled = next;
+            }
+        }
+
+        private void overrun(final long missed) {
+            handled += missed;
+            try {
+                listener.onOverrun(missed);
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.poo.EventBusSuite;
+
+/**
+ * A subscriber of the {@link DomainEventBus}. Listeners run on their own thread, one
+ * event at a time and in publication order. An exception thrown by a listener is kept
+ * by its subscription and rethrown on the command thread at the end of the day.
+ */
+public interface DomainEventListener {
+    /**
+     * Handles one event. The event is reused by the bus afterwards.
+     *
+     * @param event the event
+     */
+    void onEvent(DomainEvent event);
+
+    /**
+     * Called when the listener fell so far behind that events were overwritten before
+     * it read them. State derived from the events should be rebuilt.
+     *
+     * @param missed the number of events that were lost
+     */
+    default void onOverrun(final long missed) {
+    }
+}
@@ -0,0 +1,45 @@
+package org.poo.EventBusSuite;
+
+/**
+ * The kinds of change published on the {@link DomainEventBus}.
+ */
+public enum DomainEventType {
+    /**
+     * The balance of an account changed; old and new value are the balances, the
+     * detail is the currency of the account.
+     */
+    BALANCE_CHANGED,
+    /**
+     * A card was added to an account; the detail is the card number.
+     */
+    CARD_ADDED,
+    /**
+     * The payment plan of a user changed; the detail is the new plan type.
+     */
+    PLAN_CHANGED,
+    /**
+     * A transaction was added to the history of a user; the transaction tag is set.
+     */
+    TRANSACTION_ADDED,
+    /**
+     * A command was timed; the detail is the command name, the new value the elapsed
+     * nanoseconds.
+     */
+    COMMAND_TIMED,
+    /**
+     * A sub-step of a command was timed; the detail is the name of the step, the new
+     * value the elapsed nanoseconds.
+     */
+    STEP_TIMED,
+    /**
+     * The day of commands is over; listeners report what they aggregated over it.
+     */
+    DAY_ENDED;
+
+    /**
+     * @return the bit of this type in a subscription mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
@@ -1,5 +1,8 @@
 package org.poo;
 
+import org.poo.CashbackSuite.CommerciantCategory;
+import org.poo.utils.CaseInsensitiveIndex;
+
 /**
  * The ExtendedCommerciant class represents a commerciant with additional properties
  * such as cashback strategies and type, along with basic information like ID, name,
@@ -14,6 +17,11 @@ public class ExtendedCommerciant {
     private final String account;
     private final String type;
     private final String cashbackStrategy;
+    private final CommerciantCategory category;
+    private final boolean cashbackEligible;
+
+    private static final CaseInsensitiveIndex<ExtendedCommerciant> commerciantsByName =
+            new CaseInsensitiveIndex<>();
 
     public ExtendedCommerciant(final int id, final String name, final String account,
                                final String type, final String cashbackStrategy) {
@@ -22,23 +30,40 @@ public class ExtendedCommerciant {
         this.account = account;
         this.type = type;
         this.cashbackStrategy = cashbackStrategy;
+        this.category = CommerciantCategory.fromType(type);
+
+        String strategy = cashbackStrategy == null ? "" : cashbackStrategy.toLowerCase();
+        this.cashbackEligible = "numberoftransactions".equals(strategy)
+                || "spendingthreshold".equals(strategy);
+    }
+
+    /**
+     * Adds a commerciant to the name index used by {@link #findCommerciantByName}.
+     *
+     * @param commerciant the commerciant to index
+     */
+    public static void index(final ExtendedCommerciant commerciant) {
+        commerciantsByName.put(commerciant.getName(), commerciant);
+    }
+
+    /**
+     * Empties the name index, together with the list of extended commerciants.
+     */
+    public static void clearIndex() {
+        commerciantsByName.clear();
     }
 
     /**
      * Searches for an ExtendedCommerciant by its name within the collection of
-     * extended commerciants.
+     * extended commerciants. Commerciants are indexed by name as they are loaded,
+     * so this is a hash lookup.
      *
      * @param name the name of the commerciant to search for, case-insensitive
      * @return the ExtendedCommerciant object matching the provided name, or null if
      * no match is found
      */
     public static ExtendedCommerciant findCommerciantByName(final String name) {
-        for (ExtendedCommerciant commerciant : BankTeller.extendedCommerciants) {
-            if (commerciant.getName().equalsIgnoreCase(name)) {
-                return commerciant;
-            }
-        }
-        return null;
+        return commerciantsByName.get(name);
     }
 
     /**
@@ -88,4 +113,23 @@ public class ExtendedCommerciant {
         return cashbackStrategy;
     }
 
+    /**
+     * Retrieves the cashback category matching the commerciant type.
+     *
+     * @return the category, or null if the type is not a known category
+     */
+    public CommerciantCategory getCategory() {
+        return category;
+    }
+
+    /**
+     * Tells whether payments to this commerciant earn cashback, which is the case
+     * for the "numberOfTransactions" and "spendingThreshold" strategies.
+     *
+     * @return true if the cashback rules apply to this commerciant
+     */
+    public boolean isCashbackEligible() {
+        return cashbackEligible;
+    }
+
 }
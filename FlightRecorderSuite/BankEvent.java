@@ -0,0 +1,22 @@
+package org.poo.FlightRecorderSuite;
+
+import jdk.jfr.Event;
+
+/**
+ * Base class of the bank's flight recorder events.
+ *
+ * Every event is disabled by default and switched on by the bank.jfc settings
+ * profile shipped next to these classes. The usual pattern keeps the cost near zero
+ * when nothing is recording, since the JIT removes the unused event object:
+ * <pre>
+ *     CommandEvent event = new CommandEvent();
+ *     event.begin();
+ *     ...
+ *     if (event.shouldCommit()) {
+ *         event.set(...);
+ *         event.commit();
+ *     }
+ * </pre>
+ */
+public abstract class BankEvent extends Event {
+}
@@ -0,0 +1,45 @@
+package org.poo.FlightRecorderSuite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded once per bulkTransfer command that reads its file. The event duration is
+ * the time of the whole run, so the throughput is {@code rows} over the duration.
+ */
+@Name("org.poo.BulkTransfer")
+@Label("Bulk Transfer")
+@Category({"POO Bank", "Commands"})
+@Description("A bulkTransfer run over the rows of a transfer file")
+@Enabled(false)
+@StackTrace(false)
+public final class BulkTransferEvent extends BankEvent {
+    @Label("Account")
+    private String account;
+
+    @Label("Rows")
+    @Description("The number of rows in the transfer file")
+    private int rows;
+
+    @Label("Transferred")
+    @Description("The number of rows that were transferred")
+    private int transferred;
+
+    /**
+     * Fills in the event fields.
+     *
+     * @param accountIBAN the sending account
+     * @param rowCount the number of rows
+     * @param transferredCount the number of rows that were transferred
+     */
+    public void set(final String accountIBAN, final int rowCount,
+                    final int transferredCount) {
+        this.account = accountIBAN;
+        this.rows = rowCount;
+        this.transferred = transferredCount;
+    }
+}
@@ -0,0 +1,48 @@
+package org.poo.FlightRecorderSuite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded once per {@code CashBackRules.calculateCashback} call.
+ */
+@Name("org.poo.CashbackCalculation")
+@Label("Cashback Calculation")
+@Category({"POO Bank", "Cashback"})
+@Description("Cashback calculation for a payment to a commerciant")
+@Enabled(false)
+@StackTrace(false)
+public final class CashbackEvent extends BankEvent {
+    @Label("Account")
+    private String account;
+
+    @Label("Commerciant")
+    private String commerciant;
+
+    @Label("Amount")
+    @Description("The payment amount the cashback was calculated for")
+    private double amount;
+
+    @Label("Cashback")
+    private double cashback;
+
+    /**
+     * Fills in the event fields.
+     *
+     * @param accountIBAN the paying account
+     * @param commerciantName the commerciant being paid
+     * @param paymentAmount the payment amount
+     * @param cashbackAmount the calculated cashback
+     */
+    public void set(final String accountIBAN, final String commerciantName,
+                    final double paymentAmount, final double cashbackAmount) {
+        this.account = accountIBAN;
+        this.commerciant = commerciantName;
+        this.amount = paymentAmount;
+        this.cashback = cashbackAmount;
+    }
+}
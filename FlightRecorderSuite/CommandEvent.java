@@ -0,0 +1,50 @@
+package org.poo.FlightRecorderSuite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded once per command executed by {@code BankTeller.startDay}.
+ */
+@Name("org.poo.CommandExecuted")
+@Label("Command Executed")
+@Category({"POO Bank", "Commands"})
+@Description("Execution of one command from the input file")
+@Enabled(false)
+@StackTrace(false)
+public final class CommandEvent extends BankEvent {
+    public static final String OK = "ok";
+    public static final String OUTPUT = "output";
+    public static final String ERROR = "error";
+
+    @Label("Command")
+    private String command;
+
+    @Label("Timestamp")
+    @Description("The timestamp of the command in the input file")
+    private int timestamp;
+
+    @Label("Outcome")
+    @Description("ok: nothing written to the output, output: a result was written, "
+            + "error: an error was written")
+    private String outcome;
+
+    /**
+     * Fills in the event fields. Only worth calling once {@link #shouldCommit()}
+     * returned true.
+     *
+     * @param commandName the command name
+     * @param commandTimestamp the command timestamp
+     * @param commandOutcome one of {@link #OK}, {@link #OUTPUT} or {@link #ERROR}
+     */
+    public void set(final String commandName, final int commandTimestamp,
+                    final String commandOutcome) {
+        this.command = commandName;
+        this.timestamp = commandTimestamp;
+        this.outcome = commandOutcome;
+    }
+}
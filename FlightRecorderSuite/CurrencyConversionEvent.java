@@ -0,0 +1,42 @@
+package org.poo.FlightRecorderSuite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded once per {@code BankTeller.convertCurrency} call.
+ */
+@Name("org.poo.CurrencyConversion")
+@Label("Currency Conversion")
+@Category({"POO Bank", "Conversions"})
+@Description("Conversion of an amount between two currencies")
+@Enabled(false)
+@StackTrace(false)
+public final class CurrencyConversionEvent extends BankEvent {
+    @Label("From")
+    private String from;
+
+    @Label("To")
+    private String to;
+
+    @Label("Path Length")
+    @Description("The number of exchange rates applied to reach the target currency")
+    private int pathLength;
+
+    /**
+     * Fills in the event fields.
+     *
+     * @param fromCurrency the source currency
+     * @param toCurrency the target currency
+     * @param hops the number of exchange rates applied
+     */
+    public void set(final String fromCurrency, final String toCurrency, final int hops) {
+        this.from = fromCurrency;
+        this.to = toCurrency;
+        this.pathLength = hops;
+    }
+}
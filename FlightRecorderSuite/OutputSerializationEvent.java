@@ -0,0 +1,39 @@
+package org.poo.FlightRecorderSuite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when {@code OutputBuilder} builds a large output node and when the
+ * whole output is written to its file.
+ */
+@Name("org.poo.OutputSerialization")
+@Label("Output Serialization")
+@Category({"POO Bank", "Output"})
+@Description("Building or writing of the JSON output")
+@Enabled(false)
+@StackTrace(false)
+public final class OutputSerializationEvent extends BankEvent {
+    @Label("Operation")
+    @Description("The output builder method, or \"write\" for the final file write")
+    private String operation;
+
+    @Label("Entries")
+    @Description("The number of users, transactions or output nodes serialized")
+    private int entries;
+
+    /**
+     * Fills in the event fields.
+     *
+     * @param operationName the output builder method, or "write"
+     * @param entryCount the number of serialized entries
+     */
+    public void set(final String operationName, final int entryCount) {
+        this.operation = operationName;
+        this.entries = entryCount;
+    }
+}
@@ -0,0 +1,81 @@
+package org.poo.MetricsSuite;
+
+import org.poo.EventBusSuite.DomainEventBus;
+import org.poo.EventBusSuite.DomainEventType;
+
+/**
+ * Per-command counters and latency histograms for a day of commands.
+ *
+ * Instrumentation is switched on with {@code -Dpoo.metrics=true}. Callers do not
+ * check the flag: {@link #start()}, the record methods and {@link #subscribe()} test it
+ * themselves. It is a static final constant, so when it is off the JIT folds those
+ * tests away, {@link #start()} returns 0 without reading the clock and recording does
+ * nothing. When it is on, a measurement is two {@link System#nanoTime()} calls and a
+ * timing event on the {@link DomainEventBus}; the histograms are kept by a
+ * {@link MetricsListener} on the bus thread, off the command path. At the end of every
+ * day it appends a p50/p99/p999 summary to the file named by {@code -Dpoo.metrics.file}
+ * (default {@value #DEFAULT_FILE}).
+ *
+ * Callers time a block like this:
+ * <pre>
+ *     long start = CommandMetrics.start();
+ *     ...
+ *     CommandMetrics.record(MetricStep.CURRENCY_CONVERSION, start);
+ * </pre>
+ */
+public final class CommandMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("poo.metrics");
+    public static final String DEFAULT_FILE = "metrics.txt";
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * Subscribes the histograms of a new bank to the event bus. Does nothing when
+     * metrics are disabled.
+     */
+    public static void subscribe() {
+        if (!ENABLED) {
+            return;
+        }
+        DomainEventBus.subscribe(new MetricsListener(
+                        System.getProperty("poo.metrics.file", DEFAULT_FILE)),
+                DomainEventType.COMMAND_TIMED, DomainEventType.STEP_TIMED,
+                DomainEventType.DAY_ENDED);
+    }
+
+    /**
+     * Starts a measurement.
+     *
+     * @return the current time in nanoseconds, or 0 when metrics are disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the latency of one command.
+     *
+     * @param command the command name, as found in the input
+     * @param start the value returned by {@link #start()}
+     */
+    public static void record(final String command, final long start) {
+        if (!ENABLED) {
+            return;
+        }
+        DomainEventBus.commandTimed(command, System.nanoTime() - start);
+    }
+
+    /**
+     * Records the latency of one command sub-step.
+     *
+     * @param step the sub-step
+     * @param start the value returned by {@link #start()}
+     */
+    public static void record(final MetricStep step, final long start) {
+        if (!ENABLED) {
+            return;
+        }
+        DomainEventBus.stepTimed(step.name(), System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,97 @@
+package org.poo.MetricsSuite;
+
+/**
+ * A fixed-memory latency histogram in the style of HdrHistogram. Values (nanoseconds)
+ * below 128 are counted exactly; above that, every power of two is split into 64
+ * linear sub-buckets, which keeps the relative error under 1.6%. Values above
+ * {@link #MAX_TRACKABLE} are clamped. Recording is a couple of shifts and an array
+ * increment and never allocates.
+ *
+ * Not thread safe: a histogram is meant to be recorded from a single thread.
+ */
+public final class LatencyHistogram {
+    public static final long MAX_TRACKABLE = (1L << 44) - 1;
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT
+            + (Long.SIZE - Long.numberOfLeadingZeros(MAX_TRACKABLE) - SUB_BUCKET_BITS)
+            * SUB_BUCKET_HALF;
+    private static final double PERCENT = 100.0;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalValue;
+    private long maxValue;
+
+    /**
+     * Records a single value.
+     *
+     * @param value the value in nanoseconds; negative values are recorded as 0
+     */
+    public void record(final long value) {
+        long clamped = Math.min(Math.max(value, 0L), MAX_TRACKABLE);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        totalValue += clamped;
+        if (clamped > maxValue) {
+            maxValue = clamped;
+        }
+    }
+
+    /**
+     * Returns the value at the given percentile, rounded up to the end of its bucket.
+     *
+     * @param percentile a percentile between 0 and 100, e.g. 99.9
+     * @return the value in nanoseconds, or 0 if nothing was recorded
+     */
+    public long valueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / PERCENT * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * @return the mean of the recorded values, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) totalValue / totalCount;
+    }
+
+    private static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket - SUB_BUCKET_HALF;
+    }
+
+    private static long highestValueOf(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,9 @@
+package org.poo.MetricsSuite;
+
+/**
+ * The sub-steps of a command that get their own latency histogram, next to the
+ * per-command histograms.
+ */
+public enum MetricStep {
+    CURRENCY_CONVERSION, CASHBACK_CALCULATION, ACCOUNT_LOOKUP, OUTPUT_BUILDING
+}
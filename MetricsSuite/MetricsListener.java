@@ -0,0 +1,98 @@
+package org.poo.MetricsSuite;
+
+import org.poo.EventBusSuite.DomainEvent;
+import org.poo.EventBusSuite.DomainEventListener;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the latency histograms of {@link CommandMetrics} from the timing events of the
+ * bus and appends their summary to the metrics file at the end of every day. Samples
+ * lost to an overrun of the bus are counted and reported on the run line.
+ */
+final class MetricsListener implements DomainEventListener {
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+    private static final double P999 = 99.9;
+
+    private static final AtomicInteger RUN = new AtomicInteger();
+
+    private final String file;
+    private final Map<String, LatencyHistogram> commands = new LinkedHashMap<>();
+    private final Map<MetricStep, LatencyHistogram> steps = new EnumMap<>(MetricStep.class);
+    private long lost;
+
+    MetricsListener(final String file) {
+        this.file = file;
+    }
+
+    @Override
+    public void onEvent(final DomainEvent event) {
+        switch (event.getType()) {
+            case COMMAND_TIMED -> commands.computeIfAbsent(event.getDetail(),
+                    name -> new LatencyHistogram()).record((long) event.getNewValue());
+            case STEP_TIMED -> steps.computeIfAbsent(MetricStep.valueOf(event.getDetail()),
+                    name -> new LatencyHistogram()).record((long) event.getNewValue());
+            case DAY_ENDED -> endOfDay();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onOverrun(final long missed) {
+        lost += missed;
+    }
+
+    /**
+     * Appends the summary of the day to the metrics file and clears all histograms.
+     *
+     * @throws UncheckedIOException if the metrics file cannot be written
+     */
+    private void endOfDay() {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            if (lost == 0) {
+                writer.printf("run %d%n", RUN.incrementAndGet());
+            } else {
+                writer.printf("run %d (lost %d samples)%n", RUN.incrementAndGet(), lost);
+            }
+            writer.printf("%-22s %10s %12s %12s %12s %12s %12s%n", "name", "count",
+                    "mean(us)", "p50(us)", "p99(us)", "p999(us)", "max(us)");
+            for (Map.Entry<String, LatencyHistogram> entry : commands.entrySet()) {
+                writeLine(writer, entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<MetricStep, LatencyHistogram> entry : steps.entrySet()) {
+                writeLine(writer, entry.getKey().name().toLowerCase(), entry.getValue());
+            }
+            writer.println();
+            if (writer.checkError()) {
+                throw new IOException("Write error");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metrics to " + file, e);
+        } finally {
+            commands.clear();
+            steps.clear();
+            lost = 0;
+        }
+    }
+
+    private static void writeLine(final PrintWriter writer, final String name,
+                                  final LatencyHistogram histogram) {
+        writer.printf("%-22s %10d %12.3f %12.3f %12.3f %12.3f %12.3f%n", name,
+                histogram.getTotalCount(),
+                histogram.getMean() / NANOS_PER_MICRO,
+                histogram.valueAtPercentile(P50) / NANOS_PER_MICRO,
+                histogram.valueAtPercentile(P99) / NANOS_PER_MICRO,
+                histogram.valueAtPercentile(P999) / NANOS_PER_MICRO,
+                histogram.getMaxValue() / NANOS_PER_MICRO);
+    }
+}
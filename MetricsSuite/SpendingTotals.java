@@ -0,0 +1,138 @@
+package org.poo.MetricsSuite;
+
+import org.poo.EventBusSuite.DomainEvent;
+import org.poo.EventBusSuite.DomainEventBus;
+import org.poo.EventBusSuite.DomainEventListener;
+import org.poo.EventBusSuite.DomainEventType;
+import org.poo.TransactionsSuite.TransactionTag;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spending aggregates for a day of commands, kept from the balance and transaction
+ * events of the {@link DomainEventBus}: the number and sum of debits and credits per
+ * currency and the number of transactions per tag.
+ *
+ * Switched on with {@code -Dpoo.spending=true}. The totals are kept on the bus thread,
+ * so the commands only pay for publishing the events. At the end of every day they are
+ * appended to the file named by {@code -Dpoo.spending.file} (default
+ * {@value #DEFAULT_FILE}); events lost to an overrun of the bus are counted and
+ * reported with the day instead of being recovered.
+ */
+public final class SpendingTotals implements DomainEventListener {
+    public static final boolean ENABLED = Boolean.getBoolean("poo.spending");
+    public static final String DEFAULT_FILE = "spending.txt";
+
+    private static final AtomicInteger RUN = new AtomicInteger();
+
+    private final String file;
+    private final Map<String, Totals> byCurrency = new TreeMap<>();
+    private final Map<TransactionTag, long[]> byTag = new EnumMap<>(TransactionTag.class);
+    private long lost;
+
+    /**
+     * The debits and credits of one currency.
+     */
+    private static final class Totals {
+        private long debits;
+        private double debited;
+        private long credits;
+        private double credited;
+    }
+
+    private SpendingTotals(final String file) {
+        this.file = file;
+    }
+
+    /**
+     * Subscribes the totals of a new bank to the event bus. Does nothing when the
+     * totals are disabled.
+     */
+    public static void subscribe() {
+        if (!ENABLED) {
+            return;
+        }
+        DomainEventBus.subscribe(new SpendingTotals(
+                        System.getProperty("poo.spending.file", DEFAULT_FILE)),
+                DomainEventType.BALANCE_CHANGED, DomainEventType.TRANSACTION_ADDED,
+                DomainEventType.DAY_ENDED);
+    }
+
+    @Override
+    public void onEvent(final DomainEvent event) {
+        switch (event.getType()) {
+            case BALANCE_CHANGED -> addBalanceChange(event);
+            case TRANSACTION_ADDED -> byTag.computeIfAbsent(event.getTransactionTag(),
+                    tag -> new long[1])[0]++;
+            case DAY_ENDED -> endOfDay();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onOverrun(final long missed) {
+        lost += missed;
+    }
+
+    private void addBalanceChange(final DomainEvent event) {
+        double change = event.getNewValue() - event.getOldValue();
+        if (change == 0) {
+            return;
+        }
+        Totals totals = byCurrency.computeIfAbsent(
+                event.getDetail().toUpperCase(Locale.ROOT), currency -> new Totals());
+        if (change < 0) {
+            totals.debits++;
+            totals.debited -= change;
+        } else {
+            totals.credits++;
+            totals.credited += change;
+        }
+    }
+
+    /**
+     * Appends the totals of the day to the spending file and clears them.
+     *
+     * @throws UncheckedIOException if the spending file cannot be written
+     */
+    private void endOfDay() {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            if (lost == 0) {
+                writer.printf("run %d%n", RUN.incrementAndGet());
+            } else {
+                writer.printf("run %d (lost %d events)%n", RUN.incrementAndGet(), lost);
+            }
+            writer.printf("%-10s %10s %16s %10s %16s%n", "currency", "debits", "debited",
+                    "credits", "credited");
+            for (Map.Entry<String, Totals> entry : byCurrency.entrySet()) {
+                Totals totals = entry.getValue();
+                writer.printf("%-10s %10d %16.2f %10d %16.2f%n", entry.getKey(),
+                        totals.debits, totals.debited, totals.credits, totals.credited);
+            }
+            writer.printf("%-22s %10s%n", "transaction", "count");
+            for (Map.Entry<TransactionTag, long[]> entry : byTag.entrySet()) {
+                writer.printf("%-22s %10d%n", entry.getKey().name().toLowerCase(),
+                        entry.getValue()[0]);
+            }
+            writer.println();
+            if (writer.checkError()) {
+                throw new IOException("Write error");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write spending totals to " + file, e);
+        } finally {
+            byCurrency.clear();
+            byTag.clear();
+            lost = 0;
+        }
+    }
+}
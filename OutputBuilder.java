@@ -1,20 +1,76 @@
 package org.poo;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.AccountsSuite.Account;
+import org.poo.AccountsSuite.InterestAccrual;
+import org.poo.BankCommandsSuite.BulkTransfer;
 import org.poo.CardsSuite.Card;
+import org.poo.FlightRecorderSuite.OutputSerializationEvent;
+import org.poo.MetricsSuite.CommandMetrics;
+import org.poo.MetricsSuite.MetricStep;
 import org.poo.TransactionsSuite.*;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * The OutputBuilder class is responsible for generating JSON output for various banking operations,
  * including user details, account status, transactions, and error messages.
  */
 public class OutputBuilder {
+    /**
+     * The serializer of every transaction type that printTransactions outputs, indexed
+     * by tag. Transactions whose tag is missing are not printed. Each transaction is
+     * serialized only once (see {@link Transaction#toJson}), later outputs reuse its node.
+     */
+    private static final Map<TransactionTag, TransactionSerializer> SERIALIZERS =
+            new EnumMap<>(TransactionTag.class);
+
+    /**
+     * The subset of {@link #SERIALIZERS} for the transaction types a report includes.
+     */
+    private static final Map<TransactionTag, TransactionSerializer> REPORT_SERIALIZERS =
+            new EnumMap<>(TransactionTag.class);
+
+    static {
+        register(TransactionTag.ACCT_CREATED, AccountCreated.class,
+                OutputBuilder::accountCreatedNode);
+        register(TransactionTag.TRANSFER, TransferType.class, OutputBuilder::transferNode);
+        register(TransactionTag.NO_FUNDS, NoFunds.class, OutputBuilder::descriptionNode);
+        register(TransactionTag.CARD_CREATED, CardCreated.class,
+                card -> cardNode(card.getTimestamp(), card.getDescription(),
+                        card.getAccountIBAN(), card.getCardNumber(), card.getCardHolder()));
+        register(TransactionTag.CARD_DELETED, CardDeleted.class,
+                card -> cardNode(card.getTimestamp(), card.getDescription(),
+                        card.getAccountIBAN(), card.getCardNumber(), card.getCardHolder()));
+        register(TransactionTag.ONLN_PAYMENT, OnlinePayment.class,
+                OutputBuilder::onlinePaymentNode);
+        register(TransactionTag.CARD_STAT, CardStatus.class, OutputBuilder::descriptionNode);
+        register(TransactionTag.SPLIT_PAY, SplitPay.class, OutputBuilder::splitPayNode);
+        register(TransactionTag.UNDERAGE, Underage.class, OutputBuilder::descriptionNode);
+        register(TransactionTag.PLAN_UPGRADED, PlanUpgrade.class,
+                OutputBuilder::planUpgradeNode);
+        register(TransactionTag.WITHDRAW_CASH, WithdrawCash.class,
+                OutputBuilder::withdrawCashNode);
+        register(TransactionTag.INTEREST, Interest.class, OutputBuilder::interestNode);
+        register(TransactionTag.NO_CLASSIC, NoClassic.class, OutputBuilder::noClassicNode);
+        register(TransactionTag.FAILED_SPLIT_PAY, FailedSplitPay.class,
+                OutputBuilder::failedSplitPayNode);
+
+        for (TransactionTag tag : EnumSet.of(TransactionTag.ACCT_CREATED,
+                TransactionTag.TRANSFER, TransactionTag.CARD_CREATED,
+                TransactionTag.ONLN_PAYMENT)) {
+            REPORT_SERIALIZERS.put(tag, SERIALIZERS.get(tag));
+        }
+    }
+
     private final ArrayNode output;
+    private OutputWriter writer;
+    private int outputCount;
+    private int errorCount;
     public OutputBuilder() {
         this.output = new ObjectMapper().createArrayNode();
     }
@@ -22,18 +78,31 @@ public class OutputBuilder {
 
     /**
      * Generates the JSON output for printing the list of users with their accounts and cards.
+     * The node of a user is cached until the user, one of its accounts or one of its cards
+     * changes, so only the users that changed since the previous printUsers are rebuilt.
+     * With lazy interest, users whose savings accounts have unposted interest are rebuilt
+     * too, since their balances moved without a change being posted.
      *
      * @param users List of User objects.
      * @param timestamp The timestamp of the operation.
      */
     public void printUsers(final List<User> users, final int timestamp) {
+        long start = CommandMetrics.start();
+        OutputSerializationEvent event = new OutputSerializationEvent();
+        event.begin();
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode outputNode = objectMapper.createObjectNode();
         outputNode.put("command", "printUsers");
         ArrayNode usersArray = objectMapper.createArrayNode();
 
         for (User user : users) {
-            ObjectNode userNode = objectMapper.createObjectNode();
+            ObjectNode userNode = user.getPrintedNode();
+            if (userNode != null && !(InterestAccrual.LAZY && user.hasPendingInterest())) {
+                usersArray.add(userNode);
+                continue;
+            }
+
+            userNode = objectMapper.createObjectNode();
             userNode.put("firstName", user.getFirstName());
             userNode.put("lastName", user.getLastName());
             userNode.put("email", user.getEmail());
@@ -61,12 +130,18 @@ public class OutputBuilder {
             }
 
             userNode.set("accounts", accountsArray);
+            user.setPrintedNode(userNode);
             usersArray.add(userNode);
         }
 
         outputNode.set("output", usersArray);
         outputNode.put("timestamp", timestamp);
-        output.add(outputNode);
+        CommandMetrics.record(MetricStep.OUTPUT_BUILDING, start);
+        if (event.shouldCommit()) {
+            event.set("printUsers", users.size());
+            event.commit();
+        }
+        emit(outputNode);
     }
 
     /**
@@ -86,7 +161,7 @@ public class OutputBuilder {
 
         outputNode.set("output", successNode);
         outputNode.put("timestamp", timestamp);
-        output.add(outputNode);
+        emit(outputNode);
     }
 
     /**
@@ -109,25 +184,8 @@ public class OutputBuilder {
         outputNode.set("output", errorNode);
 
         outputNode.put("timestamp", timestamp);
-        output.add(outputNode);
-    }
-
-    /**
-     * Generates JSON output for account creation.
-     *
-     * @param timestamp The timestamp of the operation.
-     * @param description The description of the operation.
-     * @param outputArray The output array to which the result is added.
-     */
-    public void printAccountCreated(final int timestamp, final String description,
-                                    final ArrayNode outputArray) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode outputNode = objectMapper.createObjectNode();
-
-        outputNode.put("timestamp", timestamp);
-        outputNode.put("description", description);
-
-        outputArray.add(outputNode);
+        errorCount++;
+        emit(outputNode);
     }
 
     /**
@@ -148,7 +206,8 @@ public class OutputBuilder {
 
         outputNode.set("output", successNode);
         outputNode.put("timestamp", timestamp);
-        output.add(outputNode);
+        errorCount++;
+        emit(outputNode);
     }
 
     /**
@@ -170,231 +229,265 @@ public class OutputBuilder {
 
         outputNode.put("timestamp", timestamp);
 
-        output.add(outputNode);
+        errorCount++;
+        emit(outputNode);
     }
 
     /**
-     * Generates JSON output for a transfer transaction.
+     * Builds an output JSON for a cash withdrawal error.
      *
-     * @param timestamp The timestamp of the operation.
-     * @param description The description of the transfer.
-     * @param senderIBAN The IBAN of the sender.
-     * @param receiverIBAN The IBAN of the receiver.
-     * @param amount The amount transferred.
-     * @param transferType The type of the transfer.
-     * @param outputArray The output array to which the result is added.
+     * @param description the error description
+     * @param timestamp the timestamp of the error
      */
-    public void printTransferType(final int timestamp, final String description,
-                                  final String senderIBAN, final String receiverIBAN,
-                                  final String amount, final String transferType,
-                                  final ArrayNode outputArray) {
+    public void cashWithdrawalError(final String description,
+                                    final int timestamp) {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode outputNode = objectMapper.createObjectNode();
 
+        outputNode.put("command", "cashWithdrawal");
+
+        ObjectNode outputDetails = objectMapper.createObjectNode();
+        outputDetails.put("description", description);
+        outputDetails.put("timestamp", timestamp);
+
+        outputNode.set("output", outputDetails);
         outputNode.put("timestamp", timestamp);
-        outputNode.put("description", description);
-        outputNode.put("senderIBAN", senderIBAN);
-        outputNode.put("receiverIBAN", receiverIBAN);
-        outputNode.put("amount", amount);
-        outputNode.put("transferType", transferType);
 
-        outputArray.add(outputNode);
+        errorCount++;
+        emit(outputNode);
     }
 
     /**
-     * Generates JSON output for a transaction when there are insufficient funds.
+     * Prints the transaction history of a user.
+     * Only the transactions added since the user's previous printTransactions are
+     * serialized, the rest of the history is reused (see {@link SerializedHistory}).
      *
-     * @param timestamp The timestamp of the operation.
-     * @param description The description of the transaction.
-     * @param outputArray The output array to which the result is added.
+     * @param user the user whose transactions are printed
+     * @param timestamp the timestamp of the transaction
      */
-    private void printNoFundsTransaction(final int timestamp, final String description,
-                                         final ArrayNode outputArray) {
+    public void printTransactions(final User user, final int timestamp) {
+        long start = CommandMetrics.start();
+        OutputSerializationEvent event = new OutputSerializationEvent();
+        event.begin();
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode transactionNode = objectMapper.createObjectNode();
+        ObjectNode outputNode = objectMapper.createObjectNode();
+        outputNode.put("command", "printTransactions");
 
-        transactionNode.put("description", description);
-        transactionNode.put("timestamp", timestamp);
+        List<Transaction> transfers = user.getTransactions();
+        ArrayNode outputArray = user.getSerializedHistory().update(transfers, SERIALIZERS);
 
-        outputArray.add(transactionNode);
+        outputNode.set("output", outputArray);
+        outputNode.put("timestamp", timestamp);
+        CommandMetrics.record(MetricStep.OUTPUT_BUILDING, start);
+        if (event.shouldCommit()) {
+            event.set("printTransactions", transfers.size());
+            event.commit();
+        }
+        emit(outputNode);
     }
 
     /**
-     * Generates JSON output for card creation.
+     * Prints a report containing account details and transactions.
      *
-     * @param timestamp The timestamp of the operation.
-     * @param description The description of the card creation.
-     * @param accountIBAN The IBAN of the account the card belongs to.
-     * @param cardNumber The number of the created card.
-     * @param cardHolder The holder of the card.
-     * @param outputArray The output array to which the result is added.
+     * @param timestamp the timestamp of the transaction
+     * @param iban the IBAN of the account
+     * @param balance the balance of the account
+     * @param currency the currency of the account
+     * @param transactions the list of transactions
      */
-    private void printCardCreated(final int timestamp, final String description,
-                                  final String accountIBAN, final String cardNumber,
-                                  final String cardHolder, final ArrayNode outputArray) {
+    public void printReport(final int timestamp, final String iban, final double balance,
+                            final String currency, final List<Transaction> transactions) {
+        long start = CommandMetrics.start();
+        OutputSerializationEvent event = new OutputSerializationEvent();
+        event.begin();
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode cardCreatedNode = objectMapper.createObjectNode();
-        cardCreatedNode.put("account", accountIBAN);
-        cardCreatedNode.put("card", cardNumber);
-        cardCreatedNode.put("cardHolder", cardHolder);
-        cardCreatedNode.put("description", description);
-        cardCreatedNode.put("timestamp", timestamp);
-        outputArray.add(cardCreatedNode);
+        ObjectNode outputNode = objectMapper.createObjectNode();
+
+        outputNode.put("command", "report");
+
+        ObjectNode reportNode = objectMapper.createObjectNode();
+        reportNode.put("IBAN", iban);
+        reportNode.put("balance", balance);
+        reportNode.put("currency", currency);
+
+        ArrayNode transactionsArray = objectMapper.createArrayNode();
+
+        for (Transaction transaction : transactions) {
+            TransactionSerializer serializer =
+                    REPORT_SERIALIZERS.get(transaction.getTransactionTag());
+            if (serializer != null) {
+                transactionsArray.add(transaction.toJson(serializer));
+            }
+        }
+
+        reportNode.set("transactions", transactions.isEmpty() ? objectMapper.createArrayNode()
+                : transactionsArray);
+
+        outputNode.set("output", reportNode);
+        outputNode.put("timestamp", timestamp);
+
+        CommandMetrics.record(MetricStep.OUTPUT_BUILDING, start);
+        if (event.shouldCommit()) {
+            event.set("printReport", transactions.size());
+            event.commit();
+        }
+        emit(outputNode);
+    }
+
+    private static <T extends Transaction> void register(final TransactionTag tag,
+                                                         final Class<T> type,
+                                                         final Function<T, ObjectNode> builder) {
+        SERIALIZERS.put(tag, transaction -> builder.apply(type.cast(transaction)));
     }
 
     /**
-     * Generates JSON output for a transfer operation.
+     * Generates JSON output for account creation.
      *
-     * @param timestamp The timestamp of the operation.
-     * @param description The description of the transfer.
-     * @param commerciant The name of the merchant.
-     * @param amount The amount transferred.
-     * @param outputArray The output array to which the result is added.
+     * @param accountCreated The account creation transaction.
+     * @return The JSON node of the transaction.
      */
-    public void printTransfer(final int timestamp, final String description,
-                              final String commerciant, final double amount,
-                              final ArrayNode outputArray) {
+    private static ObjectNode accountCreatedNode(final AccountCreated accountCreated) {
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode transferNode = objectMapper.createObjectNode();
+        ObjectNode outputNode = objectMapper.createObjectNode();
 
-        transferNode.put("amount", amount);
-        transferNode.put("commerciant", commerciant);
-        transferNode.put("description", description);
-        transferNode.put("timestamp", timestamp);
+        outputNode.put("timestamp", accountCreated.getTimestamp());
+        outputNode.put("description", accountCreated.getDescription());
 
-        outputArray.add(transferNode);
+        return outputNode;
     }
 
     /**
-     * Prints card status information.
+     * Generates JSON output for a transfer transaction, as seen by the sender or the receiver.
      *
-     * @param timestamp the timestamp of the transaction
-     * @param description the description of the card status
-     * @param outputArray the array to add the output to
+     * @param transfer The transfer transaction.
+     * @return The JSON node of the transaction.
      */
-    public void printCardStatus(final int timestamp, final String description,
-                                final ArrayNode outputArray) {
+    private static ObjectNode transferNode(final TransferType transfer) {
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode cardStatusNode = objectMapper.createObjectNode();
+        ObjectNode outputNode = objectMapper.createObjectNode();
 
-        cardStatusNode.put("description", description);
-        cardStatusNode.put("timestamp", timestamp);
+        outputNode.put("timestamp", transfer.getTimestamp());
+        outputNode.put("description", transfer.getDescription());
+        outputNode.put("senderIBAN", transfer.getSenderIBAN());
+        outputNode.put("receiverIBAN", transfer.getReceiverIBAN());
+        outputNode.put("amount", transfer.getAmount() + " " + transfer.getCurrency());
+        outputNode.put("transferType", transfer.getTransferType());
 
-        outputArray.add(cardStatusNode);
+        return outputNode;
     }
 
     /**
-     * Prints details of a split payment transaction.
+     * Generates JSON output for a transaction that only has a description, such as
+     * insufficient funds, a card status change or an underage user.
      *
-     * @param timestamp the timestamp of the transaction
-     * @param description the description of the split payment
-     * @param involvedAccounts the list of involved account IBANs
-     * @param amountPerAccount the amount per account
-     * @param currency the currency used
-     * @param outputArray the array to add the output to
+     * @param transaction The transaction.
+     * @return The JSON node of the transaction.
      */
-    private void printSplitPay(final int timestamp, final String description,
-                               final List<String> involvedAccounts, final double amountPerAccount,
-                               final String currency, final ArrayNode outputArray) {
+    private static ObjectNode descriptionNode(final Transaction transaction) {
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode splitPaymentNode = objectMapper.createObjectNode();
-        splitPaymentNode.put("timestamp", timestamp);
-        splitPaymentNode.put("description", description);
-        splitPaymentNode.put("currency", currency);
-        splitPaymentNode.put("amount", amountPerAccount);
+        ObjectNode transactionNode = objectMapper.createObjectNode();
 
-        ArrayNode accountsArray = splitPaymentNode.putArray("involvedAccounts");
-        for (String account : involvedAccounts) {
-            accountsArray.add(account);
-        }
-        outputArray.add(splitPaymentNode);
+        transactionNode.put("description", transaction.getDescription());
+        transactionNode.put("timestamp", transaction.getTimestamp());
+
+        return transactionNode;
     }
 
     /**
-     * Generates JSON output for a failed split payment transaction.
+     * Generates JSON output for card creation or deletion.
      *
      * @param timestamp The timestamp of the operation.
-     * @param description The description of the failed split payment.
-     * @param involvedAccounts The list of involved account IBANs.
-     * @param failedAmount The amount that failed to be processed.
-     * @param currency The currency of the failed transaction.
-     * @param outputArray The JSON array to which the result is added.
+     * @param description The description of the operation.
+     * @param accountIBAN The IBAN of the account the card belongs to.
+     * @param cardNumber The number of the card.
+     * @param cardHolder The holder of the card.
+     * @return The JSON node of the transaction.
      */
-    private void printFailedSplitPay(final int timestamp, final String description,
-                                     final List<String> involvedAccounts,
-                                     final double failedAmount, final String currency,
-                                     final ArrayNode outputArray) {
+    private static ObjectNode cardNode(final int timestamp, final String description,
+                                       final String accountIBAN, final String cardNumber,
+                                       final String cardHolder) {
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode transactionNode = objectMapper.createObjectNode();
-
-        transactionNode.put("type", "FAILED_SPLIT_PAY");
-        transactionNode.put("timestamp", timestamp);
-        transactionNode.put("description", description);
+        ObjectNode cardCreatedNode = objectMapper.createObjectNode();
+        cardCreatedNode.put("account", accountIBAN);
+        cardCreatedNode.put("card", cardNumber);
+        cardCreatedNode.put("cardHolder", cardHolder);
+        cardCreatedNode.put("description", description);
+        cardCreatedNode.put("timestamp", timestamp);
+        return cardCreatedNode;
+    }
 
-        ArrayNode accountsArray = objectMapper.createArrayNode();
-        for (String account : involvedAccounts) {
-            accountsArray.add(account);
-        }
-        transactionNode.set("involvedAccounts", accountsArray);
+    /**
+     * Generates JSON output for an online payment to a merchant.
+     *
+     * @param payment The online payment transaction.
+     * @return The JSON node of the transaction.
+     */
+    private static ObjectNode onlinePaymentNode(final OnlinePayment payment) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode transferNode = objectMapper.createObjectNode();
 
-        transactionNode.put("failedAmount", failedAmount);
-        transactionNode.put("currency", currency);
+        transferNode.put("amount", payment.getAmount());
+        transferNode.put("commerciant", payment.getCommerciant());
+        transferNode.put("description", payment.getDescription());
+        transferNode.put("timestamp", payment.getTimestamp());
 
-        outputArray.add(transactionNode);
+        return transferNode;
     }
 
     /**
-     * Generates a JSON output for an underage transaction.
+     * Generates JSON output for a split payment transaction.
      *
-     * @param timestamp The timestamp of the transaction.
-     * @param description The description of the transaction.
-     * @param outputArray The JSON array to which the result is added.
+     * @param splitPay The split payment transaction.
+     * @return The JSON node of the transaction.
      */
-    private void printUnderageTransaction(final int timestamp,
-                                          final String description,
-                                          final ArrayNode outputArray) {
+    private static ObjectNode splitPayNode(final SplitPay splitPay) {
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode transactionNode = objectMapper.createObjectNode();
-
-        transactionNode.put("description", description);
-        transactionNode.put("timestamp", timestamp);
+        ObjectNode splitPaymentNode = objectMapper.createObjectNode();
+        splitPaymentNode.put("timestamp", splitPay.getTimestamp());
+        splitPaymentNode.put("description", splitPay.getDescription());
+        splitPaymentNode.put("currency", splitPay.getCurrency());
+        splitPaymentNode.put("amount", splitPay.getTotalAmount());
 
-        outputArray.add(transactionNode);
+        ArrayNode accountsArray = splitPaymentNode.putArray("involvedAccounts");
+        for (String account : splitPay.getInvolvedAccounts()) {
+            accountsArray.add(account);
+        }
+        return splitPaymentNode;
     }
 
     /**
-     * Builds an output JSON for a cash withdrawal error.
+     * Generates JSON output for a failed split payment transaction.
      *
-     * @param description the error description
-     * @param timestamp the timestamp of the error
+     * @param failedSplitPay The failed split payment transaction.
+     * @return The JSON node of the transaction.
      */
-    public void cashWithdrawalError(final String description,
-                                    final int timestamp) {
+    private static ObjectNode failedSplitPayNode(final FailedSplitPay failedSplitPay) {
         ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode outputNode = objectMapper.createObjectNode();
+        ObjectNode transactionNode = objectMapper.createObjectNode();
 
-        outputNode.put("command", "cashWithdrawal");
+        transactionNode.put("type", "FAILED_SPLIT_PAY");
+        transactionNode.put("timestamp", failedSplitPay.getTimestamp());
+        transactionNode.put("description", failedSplitPay.getDescription());
 
-        ObjectNode outputDetails = objectMapper.createObjectNode();
-        outputDetails.put("description", description);
-        outputDetails.put("timestamp", timestamp);
+        ArrayNode accountsArray = objectMapper.createArrayNode();
+        for (String account : failedSplitPay.getInvolvedAccounts()) {
+            accountsArray.add(account);
+        }
+        transactionNode.set("involvedAccounts", accountsArray);
 
-        outputNode.set("output", outputDetails);
-        outputNode.put("timestamp", timestamp);
+        transactionNode.put("failedAmount", failedSplitPay.getFailedAmount());
+        transactionNode.put("currency", failedSplitPay.getCurrency());
 
-        output.add(outputNode);
+        return transactionNode;
     }
 
     /**
      * Generates the JSON output for a plan upgrade transaction.
      *
-     * @param planUpgrade The instance of the PlanUpgrade transaction containing details
-     *                    such as timestamp, description, account IBAN, and the new plan
-     *                    type.
-     * @param outputArray The output array to which the transaction details are added.
+     * @param planUpgrade The plan upgrade transaction.
+     * @return The JSON node of the transaction.
      */
-    private void printPlanUpgrade(final PlanUpgrade planUpgrade,
-                                  final ArrayNode outputArray) {
+    private static ObjectNode planUpgradeNode(final PlanUpgrade planUpgrade) {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode transactionNode = objectMapper.createObjectNode();
 
@@ -403,237 +496,58 @@ public class OutputBuilder {
         transactionNode.put("accountIBAN", planUpgrade.getAccountIBAN());
         transactionNode.put("newPlanType", planUpgrade.getNewPlanType());
 
-        outputArray.add(transactionNode);
+        return transactionNode;
     }
 
     /**
      * Generates JSON output for a cash withdrawal transaction.
      *
-     * @param withdrawCashTransaction The instance of WithdrawCash representing the
-     *                               withdrawal transaction,
-     *                                 containing details such as timestamp, description,
-     *                                 and amount.
-     * @param outputArray The output array to which the transaction details are added.
+     * @param withdrawCash The cash withdrawal transaction.
+     * @return The JSON node of the transaction.
      */
-    private void printWithdrawCash(final WithdrawCash withdrawCashTransaction,
-                                   final ArrayNode outputArray) {
+    private static ObjectNode withdrawCashNode(final WithdrawCash withdrawCash) {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode transactionNode = objectMapper.createObjectNode();
 
-        transactionNode.put("timestamp", withdrawCashTransaction.getTimestamp());
-        transactionNode.put("description", withdrawCashTransaction.getDescription());
-        transactionNode.put("amount", withdrawCashTransaction.getAmount());
+        transactionNode.put("timestamp", withdrawCash.getTimestamp());
+        transactionNode.put("description", withdrawCash.getDescription());
+        transactionNode.put("amount", withdrawCash.getAmount());
 
-        outputArray.add(transactionNode);
+        return transactionNode;
     }
 
     /**
      * Generates the JSON output for an interest transaction.
      *
-     * @param interestTransaction The instance of Interest containing details
-     *                             such as timestamp, amount, and currency.
-     * @param outputArray The output array to which the transaction details are added.
+     * @param interest The interest transaction.
+     * @return The JSON node of the transaction.
      */
-    private void printInterestTransaction(final Interest interestTransaction,
-                                          final ArrayNode outputArray) {
+    private static ObjectNode interestNode(final Interest interest) {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode transactionNode = objectMapper.createObjectNode();
 
-        transactionNode.put("timestamp", interestTransaction.getTimestamp());
+        transactionNode.put("timestamp", interest.getTimestamp());
         transactionNode.put("description", "Interest rate income");
-        transactionNode.put("amount", interestTransaction.getAmount());
-        transactionNode.put("currency", interestTransaction.getCurrency());
+        transactionNode.put("amount", interest.getAmount());
+        transactionNode.put("currency", interest.getCurrency());
 
-        outputArray.add(transactionNode);
+        return transactionNode;
     }
 
     /**
-     * Generates JSON output for a transaction that does not belong to a classic category.
+     * Generates JSON output for a transaction refused because the user has no classic account.
      *
-     * @param timestamp The timestamp of the transaction.
-     * @param description The description of the transaction.
-     * @param outputArray The JSON array to which the transaction details are added.
+     * @param noClassic The transaction.
+     * @return The JSON node of the transaction.
      */
-    private void printNoClassicTransaction(final int timestamp, String description,
-                                           final ArrayNode outputArray) {
+    private static ObjectNode noClassicNode(final NoClassic noClassic) {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode transactionNode = objectMapper.createObjectNode();
 
-        transactionNode.put("timestamp", timestamp);
-        transactionNode.put("description", description);
+        transactionNode.put("timestamp", noClassic.getTimestamp());
+        transactionNode.put("description", noClassic.getDescription());
 
-        outputArray.add(transactionNode);
-    }
-    /**
-     * Prints a list of transactions.
-     *
-     * @param transfers the list of transactions
-     * @param timestamp the timestamp of the transaction
-     */
-    public void printTransactions(final List<Transaction> transfers, final int timestamp) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode outputNode = objectMapper.createObjectNode();
-        outputNode.put("command", "printTransactions");
-
-        ArrayNode outputArray = objectMapper.createArrayNode();
-
-        for (Transaction transaction : transfers) {
-            String transactionTagString = transaction.getTransactionTag();
-            TransactionTag transactionTag = TransactionTag.valueOf(transactionTagString);
-            switch (transactionTag) {
-                case ACCT_CREATED -> {
-                    printAccountCreated(transaction.getTimestamp(), transaction.getDescription(),
-                            outputArray);
-                }
-                case TRANSFER -> {
-                    TransferType transferType = (TransferType) transaction;
-                    printTransferType(transferType.getTimestamp(), transferType.getDescription(),
-                            transferType.getSenderIBAN(), transferType.getReceiverIBAN(),
-                            transferType.getAmount(),
-                            transferType.getTransferType(), outputArray);
-                }
-                case NO_FUNDS -> {
-                    NoFunds noFundsTransaction = (NoFunds) transaction;
-                    printNoFundsTransaction(noFundsTransaction.getTimestamp(),
-                            noFundsTransaction.getDescription(),
-                            outputArray);
-                }
-                case CARD_CREATED -> {
-                    CardCreated cardCreated = (CardCreated) transaction;
-                    printCardCreated(cardCreated.getTimestamp(), cardCreated.getDescription(),
-                            cardCreated.getAccountIBAN(),
-                            cardCreated.getCardNumber(), cardCreated.getCardHolder(), outputArray);
-                }
-                case CARD_DELETED -> {
-                    CardDeleted cardDeleted = (CardDeleted) transaction;
-                    printCardCreated(cardDeleted.getTimestamp(), cardDeleted.getDescription(),
-                            cardDeleted.getAccountIBAN(),
-                            cardDeleted.getCardNumber(), cardDeleted.getCardHolder(),
-                            outputArray);
-                }
-                case ONLN_PAYMENT -> {
-                    OnlinePayment transfer = (OnlinePayment) transaction;
-                    printTransfer(transfer.getTimestamp(),
-                            transfer.getDescription(), transfer.getCommerciant(),
-                            transfer.getAmount(), outputArray);
-                }
-                case CARD_STAT -> {
-                    CardStatus cardStatusTransaction = (CardStatus) transaction;
-                    printCardStatus(cardStatusTransaction.getTimestamp(),
-                            cardStatusTransaction.getDescription(),
-                            outputArray);
-                }
-                case SPLIT_PAY -> {
-                    SplitPay splitPayment = (SplitPay) transaction;
-                    printSplitPay(splitPayment.getTimestamp(), splitPayment.getDescription(),
-                            splitPayment.getInvolvedAccounts(), splitPayment.getTotalAmount(),
-                            splitPayment.getCurrency(),
-                            outputArray);
-                }
-                case UNDERAGE -> {
-                    Underage underageTransaction = (Underage) transaction;
-                    printUnderageTransaction(underageTransaction.getTimestamp(),
-                            underageTransaction.getDescription(), outputArray);
-                }
-                case PLAN_UPGRADED -> {
-                    printPlanUpgrade((PlanUpgrade) transaction, outputArray);
-                }
-                case WITHDRAW_CASH -> {
-                    WithdrawCash withdrawCashTransaction = (WithdrawCash) transaction;
-                    printWithdrawCash(withdrawCashTransaction, outputArray);
-                }
-                case INTEREST -> {
-                    Interest interestTransaction = (Interest) transaction;
-                    printInterestTransaction(interestTransaction, outputArray);
-                }
-                case NO_CLASSIC -> {
-                    NoClassic noClassicTransaction = (NoClassic) transaction;
-                    printNoClassicTransaction(noClassicTransaction.getTimestamp(),
-                            noClassicTransaction.getDescription(), outputArray);
-                }
-                case FAILED_SPLIT_PAY -> {
-                    FailedSplitPay failedSplitPayment = (FailedSplitPay) transaction;
-                    printFailedSplitPay(failedSplitPayment.getTimestamp(),
-                            failedSplitPayment.getDescription(),
-                            failedSplitPayment.getInvolvedAccounts(),
-                            failedSplitPayment.getFailedAmount(),
-                            failedSplitPayment.getCurrency(), outputArray);
-                }
-                default -> {
-
-                }
-            }
-        }
-
-        outputNode.set("output", outputArray);
-        outputNode.put("timestamp", timestamp);
-        output.add(outputNode);
-    }
-
-    /**
-     * Prints a report containing account details and transactions.
-     *
-     * @param timestamp the timestamp of the transaction
-     * @param iban the IBAN of the account
-     * @param balance the balance of the account
-     * @param currency the currency of the account
-     * @param transactions the list of transactions
-     */
-    public void printReport(final int timestamp, final String iban, final double balance,
-                            final String currency, final List<Transaction> transactions) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode outputNode = objectMapper.createObjectNode();
-
-        outputNode.put("command", "report");
-
-        ObjectNode reportNode = objectMapper.createObjectNode();
-        reportNode.put("IBAN", iban);
-        reportNode.put("balance", balance);
-        reportNode.put("currency", currency);
-
-        ArrayNode transactionsArray = objectMapper.createArrayNode();
-
-        for (Transaction transaction : transactions) {
-            TransactionTag transactionTag = TransactionTag.valueOf(transaction.getTransactionTag());
-
-            switch (transactionTag) {
-                case ACCT_CREATED -> {
-                    AccountCreated accountCreated = (AccountCreated) transaction;
-                    printAccountCreated(accountCreated.getTimestamp(),
-                            accountCreated.getDescription(),
-                            transactionsArray);
-                }
-                case TRANSFER -> {
-                    TransferType transferType = (TransferType) transaction;
-                    printTransferType(transferType.getTimestamp(), transferType.getDescription(),
-                            transferType.getSenderIBAN(), transferType.getReceiverIBAN(),
-                            transferType.getAmount(), transferType.getTransferType(),
-                            transactionsArray);
-                }
-                case CARD_CREATED -> {
-                    CardCreated cardCreated = (CardCreated) transaction;
-                    printCardCreated(cardCreated.getTimestamp(), cardCreated.getDescription(),
-                            cardCreated.getAccountIBAN(), cardCreated.getCardNumber(),
-                            cardCreated.getCardHolder(), transactionsArray);
-                }
-                case ONLN_PAYMENT -> {
-                    OnlinePayment onlinePayment = (OnlinePayment) transaction;
-                    printTransfer(onlinePayment.getTimestamp(), onlinePayment.getDescription(),
-                            onlinePayment.getCommerciant(),
-                            onlinePayment.getAmount(), transactionsArray);
-                }
-                default -> {
-                }
-            }
-        }
-
-        reportNode.set("transactions", transactions.isEmpty() ? objectMapper.createArrayNode()
-                : transactionsArray);
-
-        outputNode.set("output", reportNode);
-        outputNode.put("timestamp", timestamp);
-
-        output.add(outputNode);
+        return transactionNode;
     }
 
     /**
@@ -653,6 +567,9 @@ public class OutputBuilder {
                                      final Map<String, Double> commerciantsTotals,
                                      final ArrayNode transactionsArray,
                                      final int commandTimestamp) {
+        long start = CommandMetrics.start();
+        OutputSerializationEvent event = new OutputSerializationEvent();
+        event.begin();
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode outputNode = objectMapper.createObjectNode();
 
@@ -687,7 +604,123 @@ public class OutputBuilder {
         finalOutputNode.set("output", outputNode);
         finalOutputNode.put("timestamp", commandTimestamp);
 
-        output.add(finalOutputNode);
+        CommandMetrics.record(MetricStep.OUTPUT_BUILDING, start);
+        if (event.shouldCommit()) {
+            event.set("buildSpendingsReport", transactionsArray.size());
+            event.commit();
+        }
+        emit(finalOutputNode);
+    }
+
+    /**
+     * Prints the net worth of a user in a reporting currency.
+     *
+     * @param email the email of the user
+     * @param netWorth the sum of the user's balances, in the reporting currency
+     * @param unconvertible the IBANs of the accounts left out of the sum because their
+     *                      currency cannot be converted, or null if there are none
+     * @param currency the reporting currency
+     * @param timestamp the timestamp of the command
+     */
+    public void printNetWorth(final String email, final double netWorth,
+                              final List<String> unconvertible,
+                              final String currency, final int timestamp) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode outputNode = objectMapper.createObjectNode();
+        outputNode.put("command", "netWorth");
+
+        ObjectNode outputContent = objectMapper.createObjectNode();
+        outputContent.put("email", email);
+        outputContent.put("netWorth", netWorth);
+        putUnconvertible(outputContent, unconvertible);
+        outputContent.put("currency", currency);
+
+        outputNode.set("output", outputContent);
+        outputNode.put("timestamp", timestamp);
+        emit(outputNode);
+    }
+
+    /**
+     * Prints the net worth of every user of the bank in a reporting currency, together
+     * with the bank-wide total.
+     *
+     * @param users the users, in the order they are printed
+     * @param netWorths the net worth of every user, in the same order
+     * @param unconvertible the IBANs of every user's accounts left out of the sums, in the
+     *                      same order; null for the users whose accounts all convert
+     * @param currency the reporting currency
+     * @param timestamp the timestamp of the command
+     */
+    public void printBankNetWorth(final List<User> users, final double[] netWorths,
+                                  final List<List<String>> unconvertible,
+                                  final String currency, final int timestamp) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode outputNode = objectMapper.createObjectNode();
+        outputNode.put("command", "netWorth");
+
+        ObjectNode outputContent = objectMapper.createObjectNode();
+        ArrayNode usersArray = objectMapper.createArrayNode();
+        double total = 0;
+        for (int i = 0; i < netWorths.length; i++) {
+            ObjectNode userNode = objectMapper.createObjectNode();
+            userNode.put("email", users.get(i).getEmail());
+            userNode.put("netWorth", netWorths[i]);
+            putUnconvertible(userNode, unconvertible.get(i));
+            usersArray.add(userNode);
+            total += netWorths[i];
+        }
+        outputContent.set("users", usersArray);
+        outputContent.put("total", total);
+        outputContent.put("currency", currency);
+
+        outputNode.set("output", outputContent);
+        outputNode.put("timestamp", timestamp);
+        emit(outputNode);
+    }
+
+    private static void putUnconvertible(final ObjectNode node,
+                                         final List<String> unconvertible) {
+        if (unconvertible != null) {
+            ArrayNode ibans = node.putArray("unconvertible");
+            for (String iban : unconvertible) {
+                ibans.add(iban);
+            }
+        }
+    }
+
+    /**
+     * Prints the outcome of a bulkTransfer: the status of every row and the totals.
+     *
+     * @param account the IBAN of the sending account
+     * @param rows the rows of the transfer file, in file order
+     * @param transferred the number of rows that were transferred
+     * @param timestamp the timestamp of the command
+     */
+    public void printBulkTransfer(final String account, final List<BulkTransfer.Row> rows,
+                                  final int transferred, final int timestamp) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode outputNode = objectMapper.createObjectNode();
+        outputNode.put("command", "bulkTransfer");
+
+        ObjectNode outputContent = objectMapper.createObjectNode();
+        outputContent.put("account", account);
+        ArrayNode rowsArray = objectMapper.createArrayNode();
+        for (BulkTransfer.Row row : rows) {
+            ObjectNode rowNode = objectMapper.createObjectNode();
+            rowNode.put("line", row.getLine());
+            rowNode.put("receiver", row.getReceiver());
+            rowNode.put("amount", row.getAmount());
+            rowNode.put("status", row.getStatus());
+            rowsArray.add(rowNode);
+        }
+        outputContent.set("rows", rowsArray);
+        outputContent.put("total", rows.size());
+        outputContent.put("transferred", transferred);
+        outputContent.put("failed", rows.size() - transferred);
+
+        outputNode.set("output", outputContent);
+        outputNode.put("timestamp", timestamp);
+        emit(outputNode);
     }
 
     /**
@@ -711,11 +744,50 @@ public class OutputBuilder {
 
         outputNode.put("timestamp", timestamp);
 
-        output.add(outputNode);
+        errorCount++;
+        emit(outputNode);
+    }
+
+    /**
+     * Sends every later output node to a writer instead of keeping it in the output
+     * array, so the nodes are written to the file while the commands keep running.
+     *
+     * @param outputWriter the writer of the output file
+     */
+    public void streamTo(final OutputWriter outputWriter) {
+        this.writer = outputWriter;
+    }
+
+    private void emit(final JsonNode node) {
+        outputCount++;
+        if (writer != null) {
+            writer.write(node);
+        } else {
+            output.add(node);
+        }
+    }
+
+    /**
+     * Gets the number of nodes added to the output so far, streamed or not.
+     *
+     * @return the output count
+     */
+    public int getOutputCount() {
+        return outputCount;
+    }
+
+    /**
+     * Gets the number of error nodes added to the output so far.
+     *
+     * @return the error count
+     */
+    public int getErrorCount() {
+        return errorCount;
     }
 
     /**
-     * Gets the output array of all transactions.
+     * Gets the output array of all transactions. Nodes streamed to a writer are not in
+     * it.
      *
      * @return the output array
      */
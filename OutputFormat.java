@@ -0,0 +1,180 @@
+package org.poo;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * The encodings the output file can be written in, selected with
+ * {@code -Dpoo.output.format} (default {@code pretty}):
+ * <ul>
+ *     <li>{@code pretty}: the indented JSON array the checker expects;</li>
+ *     <li>{@code compact}: the same array without any whitespace;</li>
+ *     <li>{@code ndjson}: one compact output node per line, with no enclosing array,
+ *     so a consumer can parse the file one result at a time;</li>
+ *     <li>{@code smile} and {@code cbor}: the array in a Jackson binary format. These
+ *     need jackson-dataformat-smile or jackson-dataformat-cbor on the classpath; their
+ *     factories are loaded by name, so the checker build does not depend on them.</li>
+ * </ul>
+ * A file is written as a stream of output nodes ({@link #begin}, {@link #write} for
+ * every node, {@link #end}), so the same code serves the whole array at the end of the
+ * run and the {@link OutputWriter} that writes it while the commands run.
+ */
+public enum OutputFormat {
+    PRETTY(null, null),
+    COMPACT(null, null),
+    NDJSON(null, null),
+    SMILE("com.fasterxml.jackson.dataformat.smile.SmileFactory", "jackson-dataformat-smile"),
+    CBOR("com.fasterxml.jackson.dataformat.cbor.CBORFactory", "jackson-dataformat-cbor");
+
+    public static final OutputFormat SELECTED =
+            parse(System.getProperty("poo.output.format", "pretty"));
+
+    private final String factoryClass;
+    private final String artifact;
+    private volatile ObjectMapper mapper;
+
+    OutputFormat(final String factoryClass, final String artifact) {
+        this.factoryClass = factoryClass;
+        this.artifact = artifact;
+    }
+
+    /**
+     * Finds a format by its name, ignoring case and surrounding whitespace. An unknown
+     * name falls back to {@link #PRETTY} without a message, so a typo never breaks the
+     * checker output or adds to what the run prints.
+     *
+     * @param name the format name, e.g. "ndjson"
+     * @return the format
+     */
+    public static OutputFormat parse(final String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return PRETTY;
+        }
+    }
+
+    /**
+     * Writes a whole output array.
+     *
+     * @param out the stream to write to; it is closed afterwards
+     * @param output the output nodes
+     * @throws IOException if the stream cannot be written, or the binary format is
+     * not on the classpath
+     */
+    public void writeAll(final OutputStream out, final ArrayNode output) throws IOException {
+        try (OutputStream stream = out; JsonGenerator generator = open(stream)) {
+            begin(generator);
+            for (JsonNode node : output) {
+                write(generator, node);
+            }
+            end(generator);
+        }
+    }
+
+    /**
+     * Loads the factory of this format, so that a binary format missing from the
+     * classpath is reported before any output file is created.
+     *
+     * @throws IOException if the binary format is not on the classpath
+     */
+    public void checkAvailable() throws IOException {
+        mapper();
+    }
+
+    /**
+     * Creates a generator for this format.
+     *
+     * @param out the stream to write to; closing the generator closes it
+     * @return the generator
+     * @throws IOException if the binary format is not on the classpath
+     */
+    public JsonGenerator open(final OutputStream out) throws IOException {
+        if (this == PRETTY) {
+            return mapper().writerWithDefaultPrettyPrinter().createGenerator(out);
+        }
+        JsonGenerator generator = mapper().createGenerator(out);
+        if (this == NDJSON) {
+            generator.setRootValueSeparator(null);
+        }
+        return generator;
+    }
+
+    /**
+     * Writes what comes before the first output node.
+     *
+     * @param generator a generator returned by {@link #open}
+     * @throws IOException if the stream cannot be written
+     */
+    public void begin(final JsonGenerator generator) throws IOException {
+        if (this != NDJSON) {
+            generator.writeStartArray();
+        }
+    }
+
+    /**
+     * Writes one output node.
+     *
+     * @param generator a generator returned by {@link #open}
+     * @param node the output node
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(final JsonGenerator generator, final JsonNode node) throws IOException {
+        mapper().writeTree(generator, node);
+        if (this == NDJSON) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * Writes what comes after the last output node.
+     *
+     * @param generator a generator returned by {@link #open}
+     * @throws IOException if the stream cannot be written
+     */
+    public void end(final JsonGenerator generator) throws IOException {
+        if (this != NDJSON) {
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Returns the mapper of this format, creating it on first use. Only the creation
+     * takes the lock; once it exists, writing a node costs a volatile read.
+     */
+    private ObjectMapper mapper() throws IOException {
+        ObjectMapper result = mapper;
+        if (result == null) {
+            synchronized (this) {
+                result = mapper;
+                if (result == null) {
+                    result = new ObjectMapper(factory())
+                            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                    mapper = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private JsonFactory factory() throws IOException {
+        if (factoryClass == null) {
+            return null;
+        }
+        try {
+            return (JsonFactory) Class.forName(factoryClass).getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IOException(name().toLowerCase(Locale.ROOT) + " output needs "
+                    + artifact + " on the classpath", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.poo;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.poo.FlightRecorderSuite.OutputSerializationEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes the output nodes to the output file on a thread of its own, while the commands
+ * keep running.
+ *
+ * Switched on with {@code -Dpoo.output.async=true}. The command thread is the only
+ * producer: {@link OutputBuilder} hands every finished output node to {@link #write},
+ * and the writer thread encodes it in the {@link OutputFormat} the whole array would
+ * be written in, into a buffered stream, so the file is byte for byte the same.
+ * The queue is bounded ({@code -Dpoo.output.queue}, default {@value #DEFAULT_QUEUE}
+ * nodes); when the writer falls that far behind, {@link #write} waits for it instead of
+ * keeping every pending node in memory.
+ *
+ * A node must not change once it is written. Output nodes are never changed after they
+ * are added to the output, and the nodes they share with later outputs (the cached user
+ * and transaction nodes) are only ever replaced, not modified.
+ */
+public final class OutputWriter {
+    public static final boolean ASYNC = Boolean.getBoolean("poo.output.async");
+    public static final int DEFAULT_QUEUE = 1 << 10;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final JsonNode END = JsonNodeFactory.instance.objectNode();
+
+    private final File file;
+    private final OutputFormat format;
+    private final BlockingQueue<JsonNode> queue;
+    private final Thread thread;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Creates the output file and starts the writer thread.
+     *
+     * @param file the output file
+     * @param format the encoding of the file
+     * @throws IOException if the format is not on the classpath; the file is then not
+     * created
+     */
+    public OutputWriter(final File file, final OutputFormat format) throws IOException {
+        format.checkAvailable();
+        this.file = file;
+        this.format = format;
+        this.queue = new ArrayBlockingQueue<>(Integer.getInteger("poo.output.queue",
+                DEFAULT_QUEUE));
+        this.thread = new Thread(this::run, "output-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues an output node, waiting while the queue is full.
+     *
+     * @param node the finished output node
+     */
+    public void write(final JsonNode node) {
+        try {
+            queue.put(node);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the output writer",
+                    e);
+        }
+    }
+
+    /**
+     * Writes the end of the output and waits for the writer thread to finish the file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        write(END);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing " + file, e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void run() {
+        OutputSerializationEvent event = new OutputSerializationEvent();
+        event.begin();
+        List<JsonNode> batch = new ArrayList<>();
+        int written = 0;
+        boolean done = false;
+        try (JsonGenerator generator = format.open(new BufferedOutputStream(
+                new FileOutputStream(file), BUFFER_SIZE))) {
+            format.begin(generator);
+            while (!done) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (JsonNode node : batch) {
+                    if (node == END) {
+                        done = true;
+                        break;
+                    }
+                    format.write(generator, node);
+                    written++;
+                }
+                batch.clear();
+            }
+            format.end(generator);
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (event.shouldCommit()) {
+            event.set("write", written);
+            event.commit();
+        }
+        if (!done) {
+            discardUntilEnd();
+        }
+    }
+
+    /**
+     * Keeps taking nodes after a failed write, so the command thread never blocks on a
+     * queue nobody empties.
+     */
+    private void discardUntilEnd() {
+        try {
+            while (queue.take() != END) {
+                continue;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.poo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable set of exchange rates, as they stand from a given timestamp on.
+ *
+ * The rates are kept in the order the conversion walk scans them (every input rate
+ * followed by its inverse), together with the currency components of the rate graph
+ * and the {@link ConversionPath} of every pair converted so far. A rate update never
+ * changes a snapshot: {@link #withRate} copies the rate list, replacing or appending
+ * the updated pair, and keeps the cached paths of every component the update does not
+ * touch, since a walk never leaves the component of its source currency. Only the
+ * paths of the updated component (or of both components an added rate joins) are
+ * resolved again, on their next use. BankTeller publishes a new snapshot with a single
+ * reference swap and every command converts against the snapshot that was current
+ * when it started, so readers never wait and never see a half-applied update.
+ */
+public final class RateSnapshot {
+    private final List<ExchangeRates> rates;
+    private final Map<String, Integer> components;
+    private final int nextComponent;
+    private final Map<Integer, Map<String, Map<String, ConversionPath>>> paths;
+    private final Map<String, ConversionVector> vectors = new ConcurrentHashMap<>();
+    private final int timestamp;
+
+    private RateSnapshot(final List<ExchangeRates> rates, final Map<String, Integer> components,
+                         final int nextComponent,
+                         final Map<Integer, Map<String, Map<String, ConversionPath>>> paths,
+                         final int timestamp) {
+        this.rates = rates;
+        this.components = components;
+        this.nextComponent = nextComponent;
+        this.paths = paths;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Builds the first snapshot of a bank.
+     *
+     * @param rates the exchange rates, each followed by its inverse
+     * @param timestamp the timestamp the rates apply from
+     * @return the snapshot
+     */
+    public static RateSnapshot of(final List<ExchangeRates> rates, final int timestamp) {
+        Map<String, Integer> components = new HashMap<>();
+        int nextComponent = 0;
+        for (ExchangeRates rate : rates) {
+            nextComponent = link(components, nextComponent, rate.getFrom(), rate.getTo());
+        }
+        return new RateSnapshot(Collections.unmodifiableList(new ArrayList<>(rates)),
+                components, nextComponent, new ConcurrentHashMap<>(), timestamp);
+    }
+
+    /**
+     * Builds the snapshot that follows this one once a rate is set. An existing rate
+     * between the two currencies (in either direction) is replaced in place, together
+     * with its inverse; otherwise the rate and its inverse are added after the others.
+     *
+     * @param from the source currency
+     * @param to the target currency
+     * @param rate the new rate from {@code from} to {@code to}
+     * @param updateTimestamp the timestamp the new rate applies from
+     * @return the new snapshot
+     */
+    public RateSnapshot withRate(final String from, final String to, final double rate,
+                                 final int updateTimestamp) {
+        List<ExchangeRates> updated = new ArrayList<>(rates);
+        boolean replaced = false;
+        for (int i = 0; i < updated.size(); i++) {
+            ExchangeRates old = updated.get(i);
+            if (old.getFrom().equalsIgnoreCase(from) && old.getTo().equalsIgnoreCase(to)) {
+                updated.set(i, exchangeRate(old.getFrom(), old.getTo(), rate));
+                replaced = true;
+            } else if (old.getFrom().equalsIgnoreCase(to)
+                    && old.getTo().equalsIgnoreCase(from)) {
+                updated.set(i, exchangeRate(old.getFrom(), old.getTo(), 1 / rate));
+                replaced = true;
+            }
+        }
+
+        Map<String, Integer> updatedComponents = components;
+        int updatedNext = nextComponent;
+        if (!replaced) {
+            updated.add(exchangeRate(from, to, rate));
+            updated.add(exchangeRate(to, from, 1 / rate));
+            updatedComponents = new HashMap<>(components);
+            updatedNext = link(updatedComponents, nextComponent, from, to);
+        }
+
+        Map<Integer, Map<String, Map<String, ConversionPath>>> kept =
+                new ConcurrentHashMap<>(paths);
+        kept.remove(components.getOrDefault(key(from), -1));
+        kept.remove(components.getOrDefault(key(to), -1));
+        return new RateSnapshot(Collections.unmodifiableList(updated), updatedComponents,
+                updatedNext, kept, updateTimestamp);
+    }
+
+    /**
+     * @return the exchange rates, in the order the conversion walk scans them
+     */
+    public List<ExchangeRates> getRates() {
+        return rates;
+    }
+
+    /**
+     * Checks whether a currency appears in any of the rates.
+     *
+     * @param currency the currency, compared ignoring case
+     * @return true if some rate converts from or to the currency
+     */
+    public boolean hasCurrency(final String currency) {
+        return components.containsKey(key(currency));
+    }
+
+    /**
+     * @return the timestamp the rates apply from
+     */
+    public int getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Retrieves the conversion path for a currency pair, resolving it on first use.
+     *
+     * @param fromCurrency the source currency
+     * @param toCurrency the target currency
+     * @return the conversion path, possibly {@link ConversionPath#UNRESOLVED}
+     */
+    public ConversionPath findPath(final String fromCurrency, final String toCurrency) {
+        int component = components.getOrDefault(key(fromCurrency), -1);
+        Map<String, ConversionPath> byTarget = paths
+                .computeIfAbsent(component, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(fromCurrency, c -> new ConcurrentHashMap<>());
+        ConversionPath conversionPath = byTarget.get(toCurrency);
+        if (conversionPath == null) {
+            conversionPath = ConversionPath.resolve(rates, fromCurrency, toCurrency);
+            byTarget.put(toCurrency, conversionPath);
+        }
+        return conversionPath;
+    }
+
+    /**
+     * Retrieves the conversion vector into a target currency, building it on first use
+     * from the conversion path of every known currency.
+     *
+     * @param target the target currency
+     * @return the conversion vector
+     */
+    public ConversionVector conversionVector(final String target) {
+        return vectors.computeIfAbsent(key(target), t -> {
+            Map<String, Double> factors = new HashMap<>();
+            for (String currency : components.keySet()) {
+                ConversionPath conversionPath = findPath(currency, target);
+                factors.put(currency, conversionPath.isResolved()
+                        ? conversionPath.factor() : Double.NaN);
+            }
+            return new ConversionVector(target, factors);
+        });
+    }
+
+    private static ExchangeRates exchangeRate(final String from, final String to,
+                                              final double rate) {
+        ExchangeRates exchangeRate = new ExchangeRates();
+        exchangeRate.setFrom(from);
+        exchangeRate.setTo(to);
+        exchangeRate.setRate(rate);
+        return exchangeRate;
+    }
+
+    /**
+     * Puts two currencies in the same component, relabelling the component of
+     * {@code to} if they were apart.
+     *
+     * @return the next free component id
+     */
+    private static int link(final Map<String, Integer> components, final int nextComponent,
+                            final String from, final String to) {
+        int next = nextComponent;
+        Integer fromComponent = components.get(key(from));
+        if (fromComponent == null) {
+            fromComponent = next++;
+            components.put(key(from), fromComponent);
+        }
+        Integer toComponent = components.get(key(to));
+        if (toComponent == null) {
+            components.put(key(to), fromComponent);
+        } else if (!toComponent.equals(fromComponent)) {
+            Integer joined = fromComponent;
+            components.replaceAll((currency, component) ->
+                    component.equals(toComponent) ? joined : component);
+        }
+        return next;
+    }
+
+    private static String key(final String currency) {
+        return currency.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,308 @@
+package org.poo;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.TransactionsSuite.TransactionFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps track of the pending custom split payments, keyed by split id.
+ *
+ * Opening a split creates one request per participant and files it under
+ * the participant's owner and the split type, in opening order. acceptSplitPayment and
+ * rejectSplitPayment then find the oldest pending split of a user and type with two
+ * hash lookups and the head of a queue, instead of scanning the user's requests or all
+ * users. Requests of splits that were closed in the meantime are dropped from a queue
+ * when they reach its head. Once every participant has accepted, all the debits are
+ * validated first and then applied together: either every participant pays, or none
+ * does. An account that takes part more than once must cover the sum of its parts. A
+ * split one of whose accounts was deleted while it was pending fails instead.
+ *
+ * Settling is switched on with {@code -Dpoo.split.settle=true}. The checker's reference
+ * outputs come from a bank that ignores acceptSplitPayment and rejectSplitPayment, so
+ * by default BankTeller does not run them and custom splits stay pending.
+ *
+ * With {@code -Dpoo.split.ttl=N} a split that is still pending N timestamps after it
+ * was opened expires: it fails for every participant, as if it had been rejected at
+ * its deadline. Deadlines are kept on a {@link SplitExpiryWheel} that BankTeller moves
+ * forward to the timestamp of every command. By default splits never expire.
+ */
+public final class SplitCoordinator {
+    public static final boolean SETTLE = Boolean.getBoolean("poo.split.settle");
+    public static final int TTL = Integer.getInteger("poo.split.ttl", 0);
+
+    private final Map<Integer, SplitSession> sessions = new HashMap<>();
+    private final Map<User, Map<String, ArrayDeque<Request>>> pending = new HashMap<>();
+    private final SplitExpiryWheel expiry = new SplitExpiryWheel(TTL);
+    private final List<SplitSession> expired = new ArrayList<>();
+    private int nextId;
+
+    /**
+     * Opens a split and sends a request to every participant.
+     *
+     * @param type the split payment type
+     * @param currency the currency of the amounts
+     * @param totalAmount the amount of the whole payment
+     * @param timestamp the timestamp of the splitPayment command
+     * @param involvedAccounts the IBANs of the participants
+     * @param accounts the account of every participant
+     * @param amounts the amount every participant pays
+     * @return the new split
+     */
+    public SplitSession open(final String type, final String currency,
+                             final double totalAmount, final int timestamp,
+                             final List<String> involvedAccounts, final Account[] accounts,
+                             final double[] amounts) {
+        User[] owners = new User[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            owners[i] = accounts[i].getOwner();
+        }
+        SplitSession session = new SplitSession(nextId++, currency, totalAmount,
+                timestamp, involvedAccounts, accounts, owners, amounts);
+        sessions.put(session.getId(), session);
+        String key = typeKey(type);
+        for (int i = 0; i < owners.length; i++) {
+            pending.computeIfAbsent(owners[i], owner -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayDeque<>())
+                    .add(new Request(session, i));
+        }
+        expiry.schedule(session);
+        return session;
+    }
+
+    /**
+     * Expires every pending split whose deadline is at or before the given timestamp.
+     * Does nothing unless splits have a time to live.
+     *
+     * @param timestamp the timestamp of the command about to run
+     */
+    public void advanceTo(final int timestamp) {
+        if (!expiry.isEnabled()) {
+            return;
+        }
+        expiry.advanceTo(timestamp, expired);
+        if (expired.isEmpty()) {
+            return;
+        }
+        expired.sort(Comparator.comparingInt(SplitSession::getId));
+        for (SplitSession session : expired) {
+            fail(session, expiry.deadline(session));
+        }
+        expired.clear();
+    }
+
+    /**
+     * Accepts the oldest pending split of the given type for a user. When it was the
+     * last missing acceptance, the split is paid.
+     *
+     * @param user the user accepting
+     * @param type the split payment type, or null for any type
+     * @param timestamp the timestamp of the acceptSplitPayment command
+     * @return false if the user has no pending split of that type
+     */
+    public boolean accept(final User user, final String type, final int timestamp) {
+        Request request = pollPending(user, type);
+        if (request == null) {
+            return false;
+        }
+        SplitSession session = request.session;
+        if (session.accept(request.participant)) {
+            complete(session, timestamp);
+        }
+        return true;
+    }
+
+    /**
+     * Rejects the oldest pending split of the given type for a user. The split is
+     * cancelled for every participant and nobody pays.
+     *
+     * @param user the user rejecting
+     * @param type the split payment type, or null for any type
+     * @param timestamp the timestamp of the rejectSplitPayment command
+     * @return false if the user has no pending split of that type
+     */
+    public boolean reject(final User user, final String type, final int timestamp) {
+        Request request = pollPending(user, type);
+        if (request == null) {
+            return false;
+        }
+        fail(request.session, timestamp);
+        return true;
+    }
+
+    /**
+     * Cancels a pending split and records a failed split payment for every participant.
+     *
+     * @param session the split
+     * @param timestamp the timestamp of the failure
+     */
+    public void fail(final SplitSession session, final int timestamp) {
+        close(session);
+        for (int i = 0; i < session.size(); i++) {
+            User owner = session.getOwner(i);
+            owner.addTransaction(TransactionFactory.failedSplitPay(timestamp,
+                    session.getInvolvedAccounts(), session.getAmount(i),
+                    session.getCurrency()));
+            dropClosedHead(owner);
+        }
+    }
+
+    /**
+     * Finds a pending split by id.
+     *
+     * @param id the id of the split
+     * @return the split, or null if it is not pending
+     */
+    public SplitSession getSession(final int id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * @return the number of pending splits
+     */
+    public int getPendingCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Drops every pending split, for a new bank.
+     */
+    public void clear() {
+        sessions.clear();
+        pending.clear();
+        expiry.clear();
+        nextId = 0;
+    }
+
+    /**
+     * Removes the requests of finished splits from the heads of a user's queues, and
+     * the queues that become empty. Splits expire in the order they were opened, so the
+     * requests of an expired split are at the head of their queues and this costs O(1)
+     * per request.
+     */
+    private void dropClosedHead(final User user) {
+        Map<String, ArrayDeque<Request>> queues = pending.get(user);
+        if (queues == null) {
+            return;
+        }
+        Iterator<ArrayDeque<Request>> iterator = queues.values().iterator();
+        while (iterator.hasNext()) {
+            ArrayDeque<Request> queue = iterator.next();
+            dropClosedHead(queue);
+            if (queue.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        if (queues.isEmpty()) {
+            pending.remove(user);
+        }
+    }
+
+    private static void dropClosedHead(final ArrayDeque<Request> queue) {
+        while (!queue.isEmpty() && queue.peek().session.isClosed()) {
+            queue.poll();
+        }
+    }
+
+    /**
+     * Takes the oldest pending request of a user for a split type, or of any type.
+     * With no type, the heads of the user's queues (one per type) are compared by split
+     * id, which follows the opening order.
+     */
+    private Request pollPending(final User user, final String type) {
+        Map<String, ArrayDeque<Request>> queues = pending.get(user);
+        if (queues == null) {
+            return null;
+        }
+        ArrayDeque<Request> oldest = null;
+        if (type != null) {
+            oldest = queues.get(typeKey(type));
+            if (oldest != null) {
+                dropClosedHead(oldest);
+            }
+        } else {
+            for (ArrayDeque<Request> queue : queues.values()) {
+                dropClosedHead(queue);
+                if (!queue.isEmpty() && (oldest == null || queue.peek().session.getId()
+                        < oldest.peek().session.getId())) {
+                    oldest = queue;
+                }
+            }
+        }
+        Request request = oldest == null ? null : oldest.poll();
+        dropClosedHead(user);
+        return request;
+    }
+
+    private static String typeKey(final String type) {
+        return type.toLowerCase(Locale.ROOT);
+    }
+
+    private void complete(final SplitSession session, final int timestamp) {
+        int count = session.size();
+        for (int i = 0; i < count; i++) {
+            Account account = session.getAccount(i);
+            if (BankTeller.findIndexedAccount(account.getIBAN()) != account) {
+                fail(session, timestamp);
+                return;
+            }
+        }
+        close(session);
+
+        String currency = session.getCurrency();
+        double[] debits = new double[count];
+        Map<Account, Double> owed = new IdentityHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Account account = session.getAccount(i);
+            debits[i] = session.getAmount(i);
+            if (!account.getCurrency().equalsIgnoreCase(currency)) {
+                debits[i] = BankTeller.convertCurrency(debits[i], currency,
+                        account.getCurrency());
+            }
+            double total = owed.merge(account, debits[i], Double::sum);
+            if (account.getBalance() < total) {
+                for (int j = 0; j < count; j++) {
+                    session.getOwner(j).addTransaction(TransactionFactory.failedSplitPay(
+                            timestamp, session.getInvolvedAccounts(), session.getAmount(j),
+                            currency));
+                }
+                return;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            Account account = session.getAccount(i);
+            account.setBalance(account.getBalance() - debits[i]);
+            session.getOwner(i).addTransaction(TransactionFactory.customSplitPay(timestamp,
+                    session.getInvolvedAccounts(), session.getAmount(i),
+                    session.getTotalAmount(), currency));
+        }
+    }
+
+    private void close(final SplitSession session) {
+        session.close();
+        sessions.remove(session.getId());
+    }
+
+    /**
+     * The request sent to one participant of a split, filed under the participant's
+     * owner until it is answered or the split is closed.
+     */
+    private static final class Request {
+        private final SplitSession session;
+        private final int participant;
+
+        private Request(final SplitSession session, final int participant) {
+            this.session = session;
+            this.participant = participant;
+        }
+    }
+}
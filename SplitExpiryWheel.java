@@ -0,0 +1,114 @@
+package org.poo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timing wheel that expires pending splits a fixed number of timestamps after
+ * they were opened.
+ *
+ * The wheel has a power of two number of slots; a split due at timestamp {@code t}
+ * goes into slot {@code t & mask}. Moving the clock forward visits only the slots of
+ * the timestamps that went by (every slot at most once, however large the jump), and
+ * a slot only holds the splits due on its timestamps, so expiring N splits is O(N)
+ * work in total instead of a scan over all pending requests. Splits that were settled
+ * or rejected before their deadline are just dropped from their slot when it comes up.
+ */
+public final class SplitExpiryWheel {
+    private static final int MAX_SLOTS = 1 << 12;
+
+    private final int ttl;
+    private final int mask;
+    private final List<List<SplitSession>> slots;
+    private int now;
+
+    /**
+     * Creates a wheel for the given time to live.
+     *
+     * @param ttl the number of timestamps after which a pending split expires; 0 or
+     *            less means splits never expire
+     */
+    public SplitExpiryWheel(final int ttl) {
+        this.ttl = ttl;
+        int size = 1;
+        while (size < ttl && size < MAX_SLOTS) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @return true if pending splits expire
+     */
+    public boolean isEnabled() {
+        return ttl > 0;
+    }
+
+    /**
+     * @param session a pending split
+     * @return the timestamp at which the split expires
+     */
+    public int deadline(final SplitSession session) {
+        return session.getTimestamp() + ttl;
+    }
+
+    /**
+     * Schedules the expiry of a newly opened split.
+     *
+     * @param session the split
+     */
+    public void schedule(final SplitSession session) {
+        if (isEnabled()) {
+            slots.get(deadline(session) & mask).add(session);
+        }
+    }
+
+    /**
+     * Moves the clock forward and collects the pending splits that are due.
+     *
+     * @param timestamp the timestamp of the command about to run
+     * @param expired receives the splits whose deadline is at or before the timestamp,
+     *                in deadline order within a slot
+     */
+    public void advanceTo(final int timestamp, final List<SplitSession> expired) {
+        if (!isEnabled() || timestamp <= now) {
+            return;
+        }
+        int ticks = (int) Math.min((long) timestamp - now, mask + 1L);
+        for (int i = 1; i <= ticks; i++) {
+            expireSlot(slots.get((now + i) & mask), timestamp, expired);
+        }
+        now = timestamp;
+    }
+
+    /**
+     * Drops every scheduled split and sets the clock back to 0, for a new bank.
+     */
+    public void clear() {
+        for (List<SplitSession> slot : slots) {
+            slot.clear();
+        }
+        now = 0;
+    }
+
+    private void expireSlot(final List<SplitSession> slot, final int timestamp,
+                            final List<SplitSession> expired) {
+        int kept = 0;
+        for (int i = 0; i < slot.size(); i++) {
+            SplitSession session = slot.get(i);
+            if (session.isClosed()) {
+                continue;
+            }
+            if (deadline(session) <= timestamp) {
+                expired.add(session);
+            } else {
+                slot.set(kept++, session);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+    }
+}
@@ -0,0 +1,149 @@
+package org.poo;
+
+import org.poo.AccountsSuite.Account;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A pending custom split payment, waiting for every participant to accept it.
+ * Participants are numbered in the order of the involved accounts; the session keeps
+ * the account, owner and amount of each one in parallel arrays and the acceptances
+ * in a bitset, so recording an acceptance is O(1).
+ */
+public final class SplitSession {
+    private final int id;
+    private final String currency;
+    private final double totalAmount;
+    private final int timestamp;
+    private final List<String> involvedAccounts;
+    private final Account[] accounts;
+    private final User[] owners;
+    private final double[] amounts;
+    private final BitSet accepted;
+    private int acceptedCount;
+    private boolean closed;
+
+    /**
+     * Creates a split session.
+     *
+     * @param id the id of the split
+     * @param currency the currency of the amounts
+     * @param totalAmount the amount of the whole payment
+     * @param timestamp the timestamp of the splitPayment command
+     * @param involvedAccounts the IBANs of the participants, as given in the command
+     * @param accounts the account of every participant
+     * @param owners the owner of every participant's account
+     * @param amounts the amount every participant pays, in the split currency
+     */
+    public SplitSession(final int id, final String currency,
+                        final double totalAmount, final int timestamp,
+                        final List<String> involvedAccounts,
+                        final Account[] accounts, final User[] owners,
+                        final double[] amounts) {
+        this.id = id;
+        this.currency = currency;
+        this.totalAmount = totalAmount;
+        this.timestamp = timestamp;
+        this.involvedAccounts = involvedAccounts;
+        this.accounts = accounts;
+        this.owners = owners;
+        this.amounts = amounts;
+        this.accepted = new BitSet(accounts.length);
+    }
+
+    /**
+     * Records the acceptance of a participant. Accepting twice counts once.
+     *
+     * @param participant the index of the participant
+     * @return true if every participant has now accepted
+     */
+    public boolean accept(final int participant) {
+        if (!accepted.get(participant)) {
+            accepted.set(participant);
+            acceptedCount++;
+        }
+        return acceptedCount == accounts.length;
+    }
+
+    /**
+     * Marks the split as finished (paid, failed or rejected), so the pending requests
+     * left in the participants' queues are ignored.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * @return true if the split is finished
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return the id of the split
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the currency of the amounts
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return the amount of the whole payment
+     */
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * @return the timestamp of the splitPayment command
+     */
+    public int getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the IBANs of the participants
+     */
+    public List<String> getInvolvedAccounts() {
+        return involvedAccounts;
+    }
+
+    /**
+     * @return the number of participants
+     */
+    public int size() {
+        return accounts.length;
+    }
+
+    /**
+     * @param participant the index of the participant
+     * @return the account of the participant
+     */
+    public Account getAccount(final int participant) {
+        return accounts[participant];
+    }
+
+    /**
+     * @param participant the index of the participant
+     * @return the owner of the participant's account
+     */
+    public User getOwner(final int participant) {
+        return owners[participant];
+    }
+
+    /**
+     * @param participant the index of the participant
+     * @return the amount the participant pays, in the split currency
+     */
+    public double getAmount(final int participant) {
+        return amounts[participant];
+    }
+}
@@ -13,7 +13,7 @@ public class AccountCreated extends Transaction {
      * @param timestamp the timestamp when the account was created
      */
     public AccountCreated(final int timestamp) {
-        super(TransactionTag.ACCT_CREATED.name(), timestamp);
+        super(TransactionTag.ACCT_CREATED, timestamp);
     }
 
     /**
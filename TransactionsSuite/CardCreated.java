@@ -19,7 +19,7 @@ public class CardCreated extends Transaction {
      */
     public CardCreated(final int timestamp, final String accountIBAN,
                        final String cardNumber, final String cardHolder) {
-        super(TransactionTag.CARD_CREATED.name(), timestamp);
+        super(TransactionTag.CARD_CREATED, timestamp);
         this.accountIBAN = accountIBAN;
         this.cardNumber = cardNumber;
         this.cardHolder = cardHolder;
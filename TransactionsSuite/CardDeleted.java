@@ -19,7 +19,7 @@ public class CardDeleted extends Transaction {
      */
     public CardDeleted(final int timestamp, final String accountIBAN,
                        final String cardNumber, final String cardHolder) {
-        super(TransactionTag.CARD_DELETED.name(), timestamp);
+        super(TransactionTag.CARD_DELETED, timestamp);
         this.accountIBAN = accountIBAN;
         this.cardNumber = cardNumber;
         this.cardHolder = cardHolder;
@@ -14,7 +14,7 @@ public class CardStatus extends Transaction {
      * @param description a description of the card status
      */
     public CardStatus(final int timestamp, final String description) {
-        super(TransactionTag.CARD_STAT.name(), timestamp);
+        super(TransactionTag.CARD_STAT, timestamp);
         this.description = description;
     }
 
@@ -11,7 +11,7 @@ import java.util.List;
  */
 public class CustomSplit extends Transaction {
     private final List<SplitNode> nodes;
-    private String transactionTag;
+    private TransactionTag transactionTag;
 
     /**
      * Constructs a CustomSplit transaction with the specified timestamp
@@ -20,9 +20,9 @@ public class CustomSplit extends Transaction {
      * @param timestamp the timestamp when the transaction occurred
      */
     public CustomSplit(final int timestamp) {
-        super(TransactionTag.NULL_PAYMENT.name(), timestamp);
+        super(TransactionTag.NULL_PAYMENT, timestamp);
         this.nodes = new ArrayList<>();
-        this.transactionTag = TransactionTag.NULL_PAYMENT.name();
+        this.transactionTag = TransactionTag.NULL_PAYMENT;
     }
 
     /**
@@ -41,7 +41,7 @@ public class CustomSplit extends Transaction {
      * Updates the transaction tag from NULL_PAYMENT to CUSTOM_SPLIT.
      */
     public void finalizeSplit() {
-        this.transactionTag = TransactionTag.CUSTOM_SPLIT.name();
+        this.transactionTag = TransactionTag.CUSTOM_SPLIT;
     }
 
     /**
@@ -50,7 +50,7 @@ public class CustomSplit extends Transaction {
      * @return the transaction tag
      */
     @Override
-    public String getTransactionTag() {
+    public TransactionTag getTransactionTag() {
         return transactionTag;
     }
 
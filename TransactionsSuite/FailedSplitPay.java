@@ -21,7 +21,7 @@ public class FailedSplitPay extends Transaction {
      */
     public FailedSplitPay(final int timestamp, final List<String> involvedAccounts,
                           final double attemptedAmount, final String currency) {
-        super(TransactionTag.FAILED_SPLIT_PAY.name(), timestamp);
+        super(TransactionTag.FAILED_SPLIT_PAY, timestamp);
 
         this.involvedAccounts = involvedAccounts;
         this.attemptedAmount = attemptedAmount;
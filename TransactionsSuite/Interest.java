@@ -20,7 +20,7 @@ public class Interest extends Transaction {
      */
     public Interest(final double amount, final String currency,
                     final int timestamp) {
-        super(TransactionTag.INTEREST.name(), timestamp);
+        super(TransactionTag.INTEREST, timestamp);
         this.amount = amount;
         this.currency = currency;
         this.description = "Interest rate income";
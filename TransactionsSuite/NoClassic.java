@@ -14,7 +14,7 @@ public class NoClassic extends Transaction {
      * @param timestamp the timestamp when the "no classic account" event occurred
      */
     public NoClassic(final int timestamp, final String message) {
-        super(TransactionTag.NO_CLASSIC.name(), timestamp);
+        super(TransactionTag.NO_CLASSIC, timestamp);
         this.message = message;
     }
 
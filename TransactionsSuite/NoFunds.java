@@ -14,7 +14,7 @@ public class NoFunds extends Transaction {
      * @param description a description of the "no funds" event
      */
     public NoFunds(final int timestamp, final String description) {
-        super(TransactionTag.NO_FUNDS.name(), timestamp);
+        super(TransactionTag.NO_FUNDS, timestamp);
         this.description = description;
     }
 
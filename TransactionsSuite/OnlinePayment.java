@@ -20,7 +20,7 @@ public class OnlinePayment extends Transaction {
      */
     public OnlinePayment(final int timestamp, final String description,
                          final double amount, final String commerciant) {
-        super(TransactionTag.ONLN_PAYMENT.name(), timestamp);
+        super(TransactionTag.ONLN_PAYMENT, timestamp);
         this.amount = amount;
         this.commerciant = commerciant;
         this.description = "Card payment";
@@ -12,7 +12,7 @@ public class PlanUpgrade extends Transaction {
 
     public PlanUpgrade(final int timestamp, final String accountIBAN,
                        final String newPlanType) {
-        super(TransactionTag.PLAN_UPGRADED.name(), timestamp);
+        super(TransactionTag.PLAN_UPGRADED, timestamp);
         this.accountIBAN = accountIBAN;
         this.newPlanType = newPlanType;
         this.description = "Upgrade plan";
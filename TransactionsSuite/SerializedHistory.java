@@ -0,0 +1,83 @@
+package org.poo.TransactionsSuite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON nodes of a user's transaction history, as printed by printTransactions.
+ *
+ * A history only ever grows, so the nodes already built are kept together with the
+ * number of transactions they cover (the high-water mark). Printing the history again
+ * only serializes the transactions added since the previous print and returns a view
+ * of the first nodes, so repeated prints cost O(new transactions) instead of
+ * O(history). Because the node array is append-only, a view keeps showing exactly the
+ * nodes that existed when it was created, even after the history grows.
+ *
+ * The array is grown by copying it, and a view keeps the array it was created on, whose
+ * first nodes are never written again. A view can therefore be read by another thread
+ * (the output writer) while the history keeps growing.
+ */
+public final class SerializedHistory {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private JsonNode[] nodes = new JsonNode[INITIAL_CAPACITY];
+    private int size;
+    private int serializedCount;
+
+    /**
+     * Serializes the transactions added since the last call and returns the whole
+     * history as a JSON array.
+     *
+     * @param transactions the transaction history of the user, in order
+     * @param serializers the serializer of every transaction type to print; transactions
+     *                    whose tag is missing are skipped
+     * @return a read-only array with the nodes of every printed transaction so far
+     */
+    public ArrayNode update(final List<Transaction> transactions,
+                            final Map<TransactionTag, TransactionSerializer> serializers) {
+        for (int i = serializedCount; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            TransactionSerializer serializer = serializers.get(transaction.getTransactionTag());
+            if (serializer != null) {
+                if (size == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, size * 2);
+                }
+                nodes[size++] = transaction.toJson(serializer);
+            }
+        }
+        serializedCount = transactions.size();
+        return new ArrayNode(JsonNodeFactory.instance, new Prefix(nodes, size));
+    }
+
+    /**
+     * A read-only view of the first nodes of the history.
+     */
+    private static final class Prefix extends AbstractList<JsonNode> {
+        private final JsonNode[] nodes;
+        private final int size;
+
+        Prefix(final JsonNode[] nodes, final int size) {
+            this.nodes = nodes;
+            this.size = size;
+        }
+
+        @Override
+        public JsonNode get(final int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return nodes[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
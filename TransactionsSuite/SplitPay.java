@@ -9,6 +9,7 @@ import java.util.List;
 public class SplitPay extends Transaction {
     private final List<String> involvedAccounts;
     private final double totalAmount;
+    private final double paymentTotal;
     private final String currency;
 
     /**
@@ -22,9 +23,26 @@ public class SplitPay extends Transaction {
      */
     public SplitPay(final int timestamp, final List<String> involvedAccounts,
                     final double totalAmount, final String currency) {
-        super(TransactionTag.SPLIT_PAY.name(), timestamp);
+        this(timestamp, involvedAccounts, totalAmount,
+                totalAmount * involvedAccounts.size(), currency);
+    }
+
+    /**
+     * Constructs a SplitPay transaction for a split whose parts are not equal.
+     *
+     * @param timestamp the timestamp when the split payment occurred
+     * @param involvedAccounts a list of account IBANs involved in the payment split
+     * @param totalAmount the amount paid by this account
+     * @param paymentTotal the amount of the whole payment, shown in the description
+     * @param currency the currency in which the payment is made
+     */
+    public SplitPay(final int timestamp, final List<String> involvedAccounts,
+                    final double totalAmount, final double paymentTotal,
+                    final String currency) {
+        super(TransactionTag.SPLIT_PAY, timestamp);
         this.involvedAccounts = involvedAccounts;
         this.totalAmount = totalAmount;
+        this.paymentTotal = paymentTotal;
         this.currency = currency;
     }
 
@@ -54,8 +72,7 @@ public class SplitPay extends Transaction {
      */
     @Override
     public String getDescription() {
-        return String.format("Split payment of %.2f %s", totalAmount
-                * involvedAccounts.size(), currency);
+        return String.format("Split payment of %.2f %s", paymentTotal, currency);
     }
 
     /**
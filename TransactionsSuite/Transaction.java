@@ -1,13 +1,16 @@
 package org.poo.TransactionsSuite;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * Represents a financial transaction in the system.
  * This class serves as a base for various types of transactions,
  * each providing a specific description of the transaction.
  */
 public abstract class Transaction {
-    private final String transactionTag;
+    private final TransactionTag transactionTag;
     private final int timestamp;
+    private ObjectNode json;
 
     /**
      * Constructs a Transaction with the specified transaction tag and timestamp.
@@ -15,17 +18,18 @@ public abstract class Transaction {
      * @param transactionTag the tag representing the type of the transaction
      * @param timestamp the timestamp when the transaction occurred
      */
-    public Transaction(final String transactionTag, final int timestamp) {
+    public Transaction(final TransactionTag transactionTag, final int timestamp) {
         this.transactionTag = transactionTag;
         this.timestamp = timestamp;
     }
 
     /**
      * Returns the tag representing the type of the transaction.
+     * Being an enum, it can be compared with == and used to index per-type tables.
      *
      * @return the transaction tag
      */
-    public String getTransactionTag() {
+    public TransactionTag getTransactionTag() {
         return transactionTag;
     }
 
@@ -38,6 +42,22 @@ public abstract class Transaction {
         return timestamp;
     }
 
+    /**
+     * Returns the JSON node of the transaction, building it with the given serializer
+     * the first time. A transaction never changes once created, so the node is built
+     * once and the same instance is added to every printTransactions and report output
+     * that lists the transaction. The returned node must not be modified.
+     *
+     * @param serializer the serializer registered for the tag of the transaction
+     * @return the JSON node of the transaction
+     */
+    public final ObjectNode toJson(final TransactionSerializer serializer) {
+        if (json == null) {
+            json = serializer.serialize(this);
+        }
+        return json;
+    }
+
     /**
      * Returns a description of the transaction.
      * This method must be implemented by subclasses to provide specific descriptions.
@@ -1,132 +1,222 @@
 package org.poo.TransactionsSuite;
 
-import org.poo.MagicNumbers;
-
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A factory class for creating various types of transactions.
- * It manages the creation of transaction objects based on the provided tag and parameters.
+ * There is one method per transaction kind, taking its values as typed (primitive where
+ * possible) parameters, so building a transaction is a single allocation with no boxing,
+ * formatting or parsing. Every created transaction is also kept in a global list.
  */
 public class TransactionFactory {
     private static final List<Transaction> transactions = new ArrayList<>();
 
+    private static <T extends Transaction> T register(final T transaction) {
+        transactions.add(transaction);
+        return transaction;
+    }
+
     /**
-     * Creates a transaction of a specified type.
-     *
-     * @param tag the transaction tag that determines the type of transaction
-     * @param params the parameters required to create the transaction
-     * @return the created transaction object
-     */
-    public static Transaction createTransaction(final TransactionTag tag, final Object... params) {
-        Transaction transaction = null;
-
-        switch (tag) {
-            case ACCT_CREATED -> {
-                int timestamp = (int) params[0];
-                transaction = new AccountCreated(timestamp);
-            }
-            case TRANSFER -> {
-                int timestamp = (int) params[0];
-                String description = (String) params[1];
-                String senderIBAN = (String) params[2];
-                String receiverIBAN = (String) params[MagicNumbers.MN3];
-                String amount = (String) params[MagicNumbers.MN4];
-                String transferType = (String) params[MagicNumbers.MN5];
-                String currency = (String) params[MagicNumbers.MN6];
-                return new TransferType(timestamp, description,
-                        senderIBAN, receiverIBAN, amount, transferType, currency);
-            }
-            case NO_FUNDS -> {
-                int timestamp = (int) params[0];
-                String description = (String) params[1];
-                transaction = new NoFunds(timestamp, description);
-            }
-            case CARD_CREATED -> {
-                int timestamp = (int) params[0];
-                String accountIBAN = (String) params[1];
-                String cardNumber = (String) params[2];
-                String cardHolder = (String) params[MagicNumbers.MN3];
-                transaction = new CardCreated(timestamp, accountIBAN, cardNumber, cardHolder);
-            }
-            case CARD_DELETED -> {
-                int timestamp = (int) params[0];
-                String accountIBAN = (String) params[1];
-                String cardNumber = (String) params[2];
-                String cardHolder = (String) params[MagicNumbers.MN3];
-                transaction = new CardDeleted(timestamp, accountIBAN, cardNumber, cardHolder);
-            }
-            case ONLN_PAYMENT -> {
-                int timestamp = (int) params[0];
-                String description = (String) params[1];
-                double amount = Double.parseDouble(params[2].toString());
-                String commerciant = (String) params[MagicNumbers.MN3];
-                transaction = new OnlinePayment(timestamp, description, amount, commerciant);
-            }
-            case CARD_STAT -> {
-                int timestamp = (int) params[0];
-                String description = (String) params[1];
-                transaction = new CardStatus(timestamp, description);
-            }
-            case SPLIT_PAY -> {
-                int timestamp = (int) params[0];
-                List<String> participants = (List<String>) params[1];
-                double totalAmount = Double.parseDouble(params[2].toString());
-                String currency = (String) params[MagicNumbers.MN3];
-                transaction = new SplitPay(timestamp, participants, totalAmount, currency);
-            }
-            case UNDERAGE -> {
-                int timestamp = (int) params[0];
-                String description = (String) params[1];
-                transaction = new Underage(timestamp, description);
-            }
-            case PLAN_UPGRADED -> {
-                int timestamp = (int) params[0];
-                String accountIBAN = (String) params[1];
-                String newPlanType = (String) params[2];
-                transaction = new PlanUpgrade(timestamp, accountIBAN, newPlanType);
-            }
-            case WITHDRAW_CASH -> {
-                int timestamp = (int) params[0];
-                double amount = Double.parseDouble(params[1].toString());
-                transaction = new WithdrawCash(timestamp, amount);
-            }
-            case INTEREST -> {
-                double amount = Double.parseDouble(params[0].toString());
-                String currency = (String) params[1];
-                int timestamp = (int) params[2];
-
-                transaction = new Interest(amount, currency, timestamp);
-            }
-            case NO_CLASSIC -> {
-                int timestamp = (int) params[0];
-                String message = (String) params[1];
-                transaction = new NoClassic(timestamp, message);
-            }
-            case FAILED_SPLIT_PAY -> {
-                try {
-                    int timestamp = (int) params[0];
-                    List<String> participants = (List<String>) params[1];
-                    double attemptedAmount = Double.parseDouble(params[2].toString());
-                    String currency = (String) params[MagicNumbers.MN3];
-
-                    transaction = new FailedSplitPay(timestamp, participants,
-                            attemptedAmount, currency);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-            default -> {
-
-            }
-        }
-
-        if (transaction != null) {
-            transactions.add(transaction);
-        }
+     * Creates an account creation transaction.
+     *
+     * @param timestamp the timestamp of the account creation
+     * @return the created transaction
+     */
+    public static AccountCreated accountCreated(final int timestamp) {
+        return register(new AccountCreated(timestamp));
+    }
 
-        return transaction;
+    /**
+     * Creates a transfer transaction, as seen by the sender or by the receiver.
+     *
+     * @param timestamp the timestamp of the transfer
+     * @param description the description of the transfer
+     * @param senderIBAN the IBAN of the sending account
+     * @param receiverIBAN the IBAN of the receiving account
+     * @param amount the amount, in the given currency
+     * @param transferType "sent" or "received"
+     * @param currency the currency of the amount
+     * @return the created transaction
+     */
+    public static TransferType transfer(final int timestamp, final String description,
+                                        final String senderIBAN, final String receiverIBAN,
+                                        final double amount, final String transferType,
+                                        final String currency) {
+        return register(new TransferType(timestamp, description, senderIBAN, receiverIBAN,
+                amount, transferType, currency));
+    }
+
+    /**
+     * Creates an insufficient funds transaction.
+     *
+     * @param timestamp the timestamp of the failed operation
+     * @param description the description of the failure
+     * @return the created transaction
+     */
+    public static NoFunds noFunds(final int timestamp, final String description) {
+        return register(new NoFunds(timestamp, description));
+    }
+
+    /**
+     * Creates a card creation transaction.
+     *
+     * @param timestamp the timestamp of the card creation
+     * @param accountIBAN the IBAN of the account the card belongs to
+     * @param cardNumber the number of the new card
+     * @param cardHolder the email of the card holder
+     * @return the created transaction
+     */
+    public static CardCreated cardCreated(final int timestamp, final String accountIBAN,
+                                          final String cardNumber, final String cardHolder) {
+        return register(new CardCreated(timestamp, accountIBAN, cardNumber, cardHolder));
+    }
+
+    /**
+     * Creates a card deletion transaction.
+     *
+     * @param timestamp the timestamp of the card deletion
+     * @param accountIBAN the IBAN of the account the card belonged to
+     * @param cardNumber the number of the deleted card
+     * @param cardHolder the email of the card holder
+     * @return the created transaction
+     */
+    public static CardDeleted cardDeleted(final int timestamp, final String accountIBAN,
+                                          final String cardNumber, final String cardHolder) {
+        return register(new CardDeleted(timestamp, accountIBAN, cardNumber, cardHolder));
+    }
+
+    /**
+     * Creates an online payment transaction.
+     *
+     * @param timestamp the timestamp of the payment
+     * @param description the description of the payment
+     * @param amount the amount paid, in the account currency
+     * @param commerciant the name of the commerciant
+     * @return the created transaction
+     */
+    public static OnlinePayment onlinePayment(final int timestamp, final String description,
+                                              final double amount, final String commerciant) {
+        return register(new OnlinePayment(timestamp, description, amount, commerciant));
+    }
+
+    /**
+     * Creates a card status transaction.
+     *
+     * @param timestamp the timestamp of the status change
+     * @param description the description of the card status
+     * @return the created transaction
+     */
+    public static CardStatus cardStatus(final int timestamp, final String description) {
+        return register(new CardStatus(timestamp, description));
+    }
+
+    /**
+     * Creates a split payment transaction.
+     *
+     * @param timestamp the timestamp of the split payment
+     * @param involvedAccounts the IBANs of the accounts involved
+     * @param totalAmount the amount of the payment
+     * @param currency the currency of the amount
+     * @return the created transaction
+     */
+    public static SplitPay splitPay(final int timestamp, final List<String> involvedAccounts,
+                                    final double totalAmount, final String currency) {
+        return register(new SplitPay(timestamp, involvedAccounts, totalAmount, currency));
+    }
+
+    /**
+     * Creates a split payment transaction for a split whose parts are not equal.
+     *
+     * @param timestamp the timestamp of the split payment
+     * @param involvedAccounts the IBANs of the accounts involved
+     * @param amount the amount paid by this account
+     * @param paymentTotal the amount of the whole payment
+     * @param currency the currency of the amounts
+     * @return the created transaction
+     */
+    public static SplitPay customSplitPay(final int timestamp,
+                                          final List<String> involvedAccounts,
+                                          final double amount, final double paymentTotal,
+                                          final String currency) {
+        return register(new SplitPay(timestamp, involvedAccounts, amount, paymentTotal,
+                currency));
+    }
+
+    /**
+     * Creates a failed split payment transaction.
+     *
+     * @param timestamp the timestamp of the split payment
+     * @param involvedAccounts the IBANs of the accounts involved
+     * @param attemptedAmount the amount that could not be paid
+     * @param currency the currency of the amount
+     * @return the created transaction
+     */
+    public static FailedSplitPay failedSplitPay(final int timestamp,
+                                                final List<String> involvedAccounts,
+                                                final double attemptedAmount,
+                                                final String currency) {
+        return register(new FailedSplitPay(timestamp, involvedAccounts, attemptedAmount,
+                currency));
+    }
+
+    /**
+     * Creates a transaction for a user under the minimum age.
+     *
+     * @param timestamp the timestamp of the refused operation
+     * @param message the message explaining the refusal
+     * @return the created transaction
+     */
+    public static Underage underage(final int timestamp, final String message) {
+        return register(new Underage(timestamp, message));
+    }
+
+    /**
+     * Creates a payment plan upgrade transaction.
+     *
+     * @param timestamp the timestamp of the upgrade
+     * @param accountIBAN the IBAN of the account that paid for the upgrade
+     * @param newPlanType the new plan type
+     * @return the created transaction
+     */
+    public static PlanUpgrade planUpgrade(final int timestamp, final String accountIBAN,
+                                          final String newPlanType) {
+        return register(new PlanUpgrade(timestamp, accountIBAN, newPlanType));
+    }
+
+    /**
+     * Creates a cash withdrawal transaction.
+     *
+     * @param timestamp the timestamp of the withdrawal
+     * @param amount the amount withdrawn, in RON
+     * @return the created transaction
+     */
+    public static WithdrawCash withdrawCash(final int timestamp, final double amount) {
+        return register(new WithdrawCash(timestamp, amount));
+    }
+
+    /**
+     * Creates an interest transaction.
+     *
+     * @param amount the interest added to the account
+     * @param currency the currency of the account
+     * @param timestamp the timestamp of the interest payment
+     * @return the created transaction
+     */
+    public static Interest interest(final double amount, final String currency,
+                                    final int timestamp) {
+        return register(new Interest(amount, currency, timestamp));
+    }
+
+    /**
+     * Creates a transaction for a user without a classic account.
+     *
+     * @param timestamp the timestamp of the refused operation
+     * @param message the message explaining the refusal
+     * @return the created transaction
+     */
+    public static NoClassic noClassic(final int timestamp, final String message) {
+        return register(new NoClassic(timestamp, message));
     }
 
     /**
@@ -0,0 +1,19 @@
+package org.poo.TransactionsSuite;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Builds the JSON output of one type of transaction.
+ * Serializers are registered per {@link TransactionTag}, so printing a transaction is a
+ * table lookup on its tag instead of a switch over every type.
+ */
+@FunctionalInterface
+public interface TransactionSerializer {
+    /**
+     * Builds the JSON node of a transaction.
+     *
+     * @param transaction the transaction, of the type the serializer is registered for
+     * @return the JSON node of the transaction
+     */
+    ObjectNode serialize(Transaction transaction);
+}
@@ -8,7 +8,7 @@ package org.poo.TransactionsSuite;
 public class TransferType extends Transaction {
     private final String senderIBAN;
     private final String receiverIBAN;
-    private final String amount;
+    private final double amount;
     private final String transferType;
     private final String description;
     private final String currency;
@@ -26,8 +26,8 @@ public class TransferType extends Transaction {
      */
     public TransferType(final int timestamp, final String description,
                         final String senderIBAN, final String receiverIBAN,
-                        final String amount, final String transferType, final String currency) {
-        super(TransactionTag.TRANSFER.name(), timestamp);
+                        final double amount, final String transferType, final String currency) {
+        super(TransactionTag.TRANSFER, timestamp);
         this.description = description;
         this.senderIBAN = senderIBAN;
         this.receiverIBAN = receiverIBAN;
@@ -65,12 +65,21 @@ public class TransferType extends Transaction {
     }
 
     /**
-     * Returns the amount being transferred, followed by the currency.
+     * Returns the amount being transferred, in {@link #getCurrency()}.
      *
-     * @return The amount and currency of the transfer.
+     * @return The amount of the transfer.
      */
-    public String getAmount() {
-        return amount + " " + currency;
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Returns the currency of the transferred amount.
+     *
+     * @return The currency of the transfer.
+     */
+    public String getCurrency() {
+        return currency;
     }
 
     /**
@@ -14,7 +14,7 @@ public class Underage extends Transaction {
      * @param message a message describing the underage restriction
      */
     public Underage(final int timestamp, final String message) {
-        super(TransactionTag.UNDERAGE.name(), timestamp);
+        super(TransactionTag.UNDERAGE, timestamp);
         this.message = message;
     }
 
@@ -10,7 +10,7 @@ public class WithdrawCash extends Transaction {
      * @param amount the amount withdrawn
      */
     public WithdrawCash(final int timestamp, final double amount) {
-        super(TransactionTag.WITHDRAW_CASH.name(), timestamp);
+        super(TransactionTag.WITHDRAW_CASH, timestamp);
         this.amount = amount;
     }
 
@@ -1,13 +1,15 @@
 package org.poo;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.AccountsSuite.Account;
+import org.poo.AccountsSuite.SavingsAccount;
+import org.poo.EventBusSuite.DomainEventBus;
 import org.poo.PaymentPlanSuite.PaymentPlan;
 import org.poo.PaymentPlanSuite.PaymentPlanManager;
 import org.poo.TransactionsSuite.*;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -21,8 +23,10 @@ public class User {
     private String occupation;
     private List<Account> accounts;
     private List<Transaction> transactions;
+    private final SerializedHistory serializedHistory;
+    private ObjectNode printedNode;
     private PaymentPlan paymentPlan;
-    private List<RequestNode> requestQueue;
+    private int goldQualifyingTransactions;
 
 
     /**
@@ -43,12 +47,12 @@ public class User {
         this.occupation = occupation;
         this.accounts = new ArrayList<>();
         this.transactions = new ArrayList<>();
+        this.serializedHistory = new SerializedHistory();
         if ("student".equalsIgnoreCase(occupation)) {
             this.paymentPlan = PaymentPlanManager.getPlan("student");
         } else {
             this.paymentPlan = PaymentPlanManager.getPlan("standard");
             }
-        this.requestQueue = new LinkedList<>();
     }
 
     /**
@@ -58,55 +62,30 @@ public class User {
      */
     public void setPaymentPlan(final PaymentPlan paymentPlan) {
         this.paymentPlan = paymentPlan;
+        if (paymentPlan != null) {
+            DomainEventBus.planChanged(this, paymentPlan.getType());
+        }
     }
 
     /**
-     * Checks if the user qualifies for an automatic upgrade to the gold payment plan.
+     * Checks if the user qualifies for an automatic upgrade to the gold payment plan,
+     * i.e. has at least 5 payments, split payments or transfers of 300 or more.
+     * Qualifying transactions are counted as they are added, so this does not scan
+     * the history.
      *
      * @return true if the user qualifies, false otherwise
      */
     public boolean canAutoUpgradeToGold() {
-        long qualifyingTransactions = transactions.stream()
-                .filter(tx -> {
-                    return tx.getTransactionTag().equals(TransactionTag.ONLN_PAYMENT.name())
-                            && ((OnlinePayment) tx).getAmount() >= MagicNumbers.MN300
-                            || tx.getTransactionTag().equals(TransactionTag.SPLIT_PAY.name())
-                            && ((SplitPay) tx).getTotalAmount() >= MagicNumbers.MN300
-                            || tx.getTransactionTag().equals(TransactionTag.TRANSFER.name())
-                            && Double.parseDouble(((TransferType) tx).getAmount().split(" ")[0])
-                            >= MagicNumbers.MN300;
-                })
-                .count();
-        return qualifyingTransactions >= MagicNumbers.MN5;
+        return goldQualifyingTransactions >= MagicNumbers.MN5;
     }
 
-    /**
-     * Retrieves the current request queue of the user.
-     * The request queue contains a list of pending RequestNode objects,
-     * each of which represents a transaction request to be processed.
-     *
-     * @return a list of RequestNode objects representing the user's request queue
-     */
-    public List<RequestNode> getRequestQueue() {
-        return requestQueue;
-    }
-
-    /**
-     * Adds a new request to the user's request queue.
-     *
-     * @param request the RequestNode object to be added to the queue
-     */
-    public void addRequest(final RequestNode request) {
-        this.requestQueue.add(request);
-    }
-
-    /**
-     * Removes a specified request from the user's request queue.
-     *
-     * @param request the RequestNode object to be removed from the queue
-     */
-    public void removeRequest(final RequestNode request) {
-        this.requestQueue.remove(request);
+    private static boolean qualifiesForGold(final Transaction tx) {
+        return switch (tx.getTransactionTag()) {
+            case ONLN_PAYMENT -> ((OnlinePayment) tx).getAmount() >= MagicNumbers.MN300;
+            case SPLIT_PAY -> ((SplitPay) tx).getTotalAmount() >= MagicNumbers.MN300;
+            case TRANSFER -> ((TransferType) tx).getAmount() >= MagicNumbers.MN300;
+            default -> false;
+        };
     }
 
     /**
@@ -161,6 +140,7 @@ public class User {
      */
     public void setFirstName(final String firstName) {
         this.firstName = firstName;
+        markChanged();
     }
 
     /**
@@ -179,6 +159,7 @@ public class User {
      */
     public void setLastName(final String lastName) {
         this.lastName = lastName;
+        markChanged();
     }
 
     /**
@@ -197,10 +178,13 @@ public class User {
      */
     public void setEmail(final String email) {
         this.email = email;
+        markChanged();
     }
 
     /**
      * Retrieves the list of accounts associated with the user.
+     * Accounts must be added and removed through {@link #addAccount} and
+     * {@link #removeAccount}, so the printUsers output of the user is rebuilt.
      *
      * @return a list of Account objects representing the user's accounts.
      */
@@ -217,9 +201,99 @@ public class User {
     public void addAccount(final Account account) {
         if (account != null) {
             accounts.add(account);
+            account.setOwner(this);
+            BankTeller.indexAccount(account);
+        }
+    }
+
+    /**
+     * Adds several accounts to the user's list of accounts at once. Unlike
+     * {@link #addAccount}, the accounts are not added to the IBAN index; the caller
+     * indexes them in one batch with {@link BankTeller#indexAccounts}.
+     *
+     * @param newAccounts the accounts to be added
+     */
+    public void addAccounts(final List<Account> newAccounts) {
+        accounts.addAll(newAccounts);
+        for (Account account : newAccounts) {
+            account.setOwner(this);
+        }
+    }
+
+    /**
+     * Grows the account and transaction lists so that the given number of accounts and
+     * transactions can be added without resizing them again.
+     *
+     * @param moreAccounts the number of accounts about to be added
+     * @param moreTransactions the number of transactions about to be added
+     */
+    public void ensureCapacity(final int moreAccounts, final int moreTransactions) {
+        if (accounts instanceof ArrayList<Account> accountList) {
+            accountList.ensureCapacity(accounts.size() + moreAccounts);
+        }
+        if (transactions instanceof ArrayList<Transaction> transactionList) {
+            transactionList.ensureCapacity(transactions.size() + moreTransactions);
+        }
+    }
+
+    /**
+     * Removes an account from the user's list of accounts.
+     *
+     * @param account the Account object to be removed
+     */
+    public void removeAccount(final Account account) {
+        if (accounts.remove(account)) {
+            account.setOwner(null);
+            BankTeller.unindexAccount(account);
+            markChanged();
         }
     }
 
+    /**
+     * Checks whether one of the user's savings accounts has interest that accrued
+     * lazily but was not posted yet, so its balance moved without the user being
+     * marked as changed.
+     *
+     * @return true if a savings account has pending interest
+     */
+    public boolean hasPendingInterest() {
+        for (Account account : accounts) {
+            if ("savings".equals(account.getAccountType())
+                    && ((SavingsAccount) account).pendingInterest() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the user as changed: one of its names, accounts, balances or cards was
+     * modified, so the cached printUsers node of the user is dropped.
+     */
+    public void markChanged() {
+        printedNode = null;
+    }
+
+    /**
+     * Retrieves the printUsers node of the user, built since the last change.
+     * The node is shared by every printUsers output that lists the unchanged user,
+     * so it must not be modified.
+     *
+     * @return the cached node, or null if the user changed since it was built
+     */
+    public ObjectNode getPrintedNode() {
+        return printedNode;
+    }
+
+    /**
+     * Caches the printUsers node of the user until the user changes.
+     *
+     * @param printedNode the node built for the current state of the user
+     */
+    public void setPrintedNode(final ObjectNode printedNode) {
+        this.printedNode = printedNode;
+    }
+
     /**
      * Adds a new transaction to the user's transaction list.
      * Only non-null transactions are added to the list.
@@ -229,6 +303,10 @@ public class User {
     public void addTransaction(final Transaction transaction) {
         if (transaction != null) {
             transactions.add(transaction);
+            if (qualifiesForGold(transaction)) {
+                goldQualifyingTransactions++;
+            }
+            DomainEventBus.transactionAdded(this, transaction);
         }
     }
 
@@ -241,6 +319,16 @@ public class User {
         return transactions;
     }
 
+    /**
+     * Retrieves the JSON nodes of the user's transactions printed so far, which
+     * printTransactions extends with the transactions added since.
+     *
+     * @return the serialized transaction history of the user
+     */
+    public SerializedHistory getSerializedHistory() {
+        return serializedHistory;
+    }
+
     /**
      * Retrieves the current payment plan assigned to the user.
      *
@@ -0,0 +1,174 @@
+package org.poo.benchmarks;
+
+import org.poo.AccountsSuite.Account;
+import org.poo.BankTeller;
+import org.poo.User;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.ObjectInput;
+import org.poo.fileio.UserInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds in-memory banks for the benchmarks. Every fixture goes through
+ * {@link BankTeller#startDay(ObjectInput)} so accounts, cards and IBANs are created
+ * exactly the way a checker input would create them.
+ */
+public final class BankFixture {
+    public static final String HUB_CURRENCY = "RON";
+    public static final double INITIAL_FUNDS = 1_000_000_000.0;
+
+    private final BankTeller bankTeller;
+    private final List<User> users;
+
+    private BankFixture(final BankTeller bankTeller) {
+        this.bankTeller = bankTeller;
+        this.users = BankTeller.getUsers();
+    }
+
+    /**
+     * Creates a bank with the given number of users, each owning one funded classic
+     * account in the given currency and one classic card on it.
+     *
+     * @param userCount the number of users to create
+     * @param currencies the currencies handed out to accounts, round-robin
+     * @param currencyCount the number of currencies in the exchange-rate graph
+     * @return the initialised fixture
+     */
+    public static BankFixture create(final int userCount, final String[] currencies,
+                                     final int currencyCount) {
+        ObjectInput input = new ObjectInput();
+        UserInput[] userInputs = new UserInput[userCount];
+        List<CommandInput> commands = new ArrayList<>(userCount * 3);
+
+        int timestamp = 0;
+        for (int i = 0; i < userCount; i++) {
+            userInputs[i] = user(i);
+
+            CommandInput addAccount = command("addAccount", ++timestamp);
+            addAccount.setEmail(userInputs[i].getEmail());
+            addAccount.setAccountType("classic");
+            addAccount.setCurrency(currencies[i % currencies.length]);
+            commands.add(addAccount);
+        }
+
+        input.setUsers(userInputs);
+        input.setExchangeRates(starRates(currencyCount));
+        input.setCommerciants(commerciants());
+        input.setCommands(commands.toArray(new CommandInput[0]));
+
+        BankTeller bankTeller = new BankTeller();
+        bankTeller.startDay(input);
+
+        BankFixture fixture = new BankFixture(bankTeller);
+        for (User user : fixture.users) {
+            Account account = user.getAccounts().get(0);
+            account.setBalance(INITIAL_FUNDS);
+            account.addCard("CLASSIC");
+        }
+        return fixture;
+    }
+
+    /**
+     * Builds a star-shaped exchange-rate graph: every currency converts directly to
+     * the hub, so any pair is reachable through at most one intermediate currency.
+     *
+     * @param currencyCount the number of currencies, including the hub
+     * @return the exchange rates
+     */
+    public static ExchangeInput[] starRates(final int currencyCount) {
+        ExchangeInput[] rates = new ExchangeInput[Math.max(currencyCount - 1, 0)];
+        for (int i = 1; i < currencyCount; i++) {
+            ExchangeInput rate = new ExchangeInput();
+            rate.setFrom(currency(i));
+            rate.setTo(HUB_CURRENCY);
+            rate.setRate(1.0 + i / 100.0);
+            rates[i - 1] = rate;
+        }
+        return rates;
+    }
+
+    /**
+     * Returns the name of the i-th currency of the star graph; index 0 is the hub.
+     *
+     * @param index the currency index
+     * @return the currency code
+     */
+    public static String currency(final int index) {
+        return index == 0 ? HUB_CURRENCY : "C" + index;
+    }
+
+    private static CommerciantInput[] commerciants() {
+        String[][] rows = {
+                {"Food", "spendingThreshold"},
+                {"Clothes", "nrOfTransactions"},
+                {"Tech", "numberOfTransactions"}
+        };
+        CommerciantInput[] commerciants = new CommerciantInput[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            CommerciantInput commerciant = new CommerciantInput();
+            commerciant.setId(i);
+            commerciant.setCommerciant(rows[i][0] + "Shop");
+            commerciant.setAccount("RO00BENCH" + i);
+            commerciant.setType(rows[i][0]);
+            commerciant.setCashbackStrategy(rows[i][1]);
+            commerciants[i] = commerciant;
+        }
+        return commerciants;
+    }
+
+    private static UserInput user(final int index) {
+        UserInput user = new UserInput();
+        user.setFirstName("First" + index);
+        user.setLastName("Last" + index);
+        user.setEmail("user" + index + "@bench.poo");
+        user.setBirthDate("1990-01-01");
+        user.setOccupation("engineer");
+        return user;
+    }
+
+    /**
+     * Creates an empty command of the given type.
+     *
+     * @param name the command name
+     * @param timestamp the command timestamp
+     * @return the command input
+     */
+    public static CommandInput command(final String name, final int timestamp) {
+        CommandInput command = new CommandInput();
+        command.setCommand(name);
+        command.setTimestamp(timestamp);
+        return command;
+    }
+
+    public BankTeller getBankTeller() {
+        return bankTeller;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Retrieves the first account of the i-th user.
+     *
+     * @param index the user index
+     * @return the account
+     */
+    public Account account(final int index) {
+        return users.get(index).getAccounts().get(0);
+    }
+
+    /**
+     * Retrieves the card number of the first card of the i-th user.
+     *
+     * @param index the user index
+     * @return the card number
+     */
+    public String cardNumber(final int index) {
+        return account(index).getCards().get(0).getCardNumber();
+    }
+}
@@ -0,0 +1,32 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result reports the
+ * allocation rate ({@code gc.alloc.rate.norm}, bytes per operation) next to the
+ * throughput. Equivalent to {@code java -jar benchmarks.jar -prof gc}.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    /**
+     * @param args an optional regular expression selecting benchmarks, e.g. "PayOnline"
+     * @throws RunnerException if JMH fails to run a benchmark
+     */
+    public static void main(final String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkMain.class.getPackageName();
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+package org.poo.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A weighted distribution of command names, e.g. "payOnline=70,sendMoney=10,report=5".
+ * Weights are relative, so they do not need to add up to 100.
+ */
+public final class CommandMix {
+    public static final String DEFAULT = "payOnline=70,sendMoney=10,addFunds=8,report=2,"
+            + "spendingsReport=2,printTransactions=1,addInterest=3,checkCardStatus=2,"
+            + "cashWithdrawal=2";
+
+    private final String[] commands;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    /**
+     * Creates a mix from command weights, keeping their insertion order.
+     *
+     * @param weights the weight of every command name
+     * @throws IllegalArgumentException if a weight is negative or all weights are zero
+     */
+    public CommandMix(final Map<String, Integer> weights) {
+        this.commands = new String[weights.size()];
+        this.cumulativeWeights = new int[weights.size()];
+
+        int total = 0;
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight for " + entry.getKey());
+            }
+            total += entry.getValue();
+            commands[index] = entry.getKey();
+            cumulativeWeights[index] = total;
+            index++;
+        }
+
+        if (total == 0) {
+            throw new IllegalArgumentException("Command mix has no weight");
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Parses a mix written as comma separated {@code name=weight} pairs.
+     *
+     * @param spec the mix specification
+     * @return the parsed mix
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    public static CommandMix parse(final String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            weights.merge(pair[0].trim(), Integer.parseInt(pair[1].trim()), Integer::sum);
+        }
+        return new CommandMix(weights);
+    }
+
+    /**
+     * Draws the next command name.
+     *
+     * @param random the seeded random source
+     * @return a command name, chosen with probability proportional to its weight
+     */
+    public String next(final Random random) {
+        int draw = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return commands[i];
+            }
+        }
+        return commands[commands.length - 1];
+    }
+}
@@ -0,0 +1,65 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.BankTeller;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BankTeller#convertCurrency(double, String, String)} on star-shaped
+ * rate graphs of growing size, for a direct pair and for a pair that needs one
+ * intermediate currency.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConvertCurrencyBenchmark {
+    @Param({"4", "32", "256"})
+    private int currencies;
+
+    private String leaf;
+    private String otherLeaf;
+
+    /**
+     * Loads the rate graph through an empty day.
+     */
+    @Setup
+    public void setUp() {
+        BankFixture.create(0, new String[] {BankFixture.HUB_CURRENCY}, currencies);
+        leaf = BankFixture.currency(currencies - 1);
+        otherLeaf = BankFixture.currency(currencies / 2);
+    }
+
+    /**
+     * Converts along a rate that is present in the graph.
+     *
+     * @return the converted amount
+     */
+    @Benchmark
+    public double directPair() {
+        return BankTeller.convertCurrency(100.0, leaf, BankFixture.HUB_CURRENCY);
+    }
+
+    /**
+     * Converts between two leaves, going through the hub currency.
+     *
+     * @return the converted amount
+     */
+    @Benchmark
+    public double viaHub() {
+        return BankTeller.convertCurrency(100.0, leaf, otherLeaf);
+    }
+}
@@ -0,0 +1,123 @@
+package org.poo.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.OutputBuilder;
+import org.poo.OutputFormat;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OutputFormat#writeAll} on the output of a large run: a printUsers plus
+ * one printTransactions per user, for users with a short transfer and payment history.
+ * The bytes go to a counting stream, so the time is the encoding alone; the
+ * {@code bytes} and {@code writes} counters give the size of one file in each format.
+ * The smile and cbor parameters need the Jackson binary format modules on the
+ * benchmark classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class OutputFormatBenchmark {
+    private static final int HISTORY = 8;
+
+    @Param({"pretty", "compact", "ndjson", "smile", "cbor"})
+    private String format;
+
+    @Param({"10000"})
+    private int users;
+
+    private OutputFormat outputFormat;
+    private ArrayNode output;
+
+    /**
+     * The size of the written files.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Written {
+        public long bytes;
+        public long writes;
+    }
+
+    /**
+     * Discards what is written and counts the bytes.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * Builds the output of the run once.
+     */
+    @Setup
+    public void setUp() {
+        outputFormat = OutputFormat.parse(format);
+        BankFixture fixture = BankFixture.create(users, new String[] {BankFixture.HUB_CURRENCY},
+                4);
+        List<User> bankUsers = fixture.getUsers();
+        for (int i = 0; i < bankUsers.size(); i++) {
+            User user = bankUsers.get(i);
+            String iban = fixture.account(i).getIBAN();
+            String receiver = fixture.account((i + 1) % bankUsers.size()).getIBAN();
+            for (int t = 0; t < HISTORY; t++) {
+                user.addTransaction(TransactionFactory.transfer(t, "Payroll", iban, receiver,
+                        10.0 + t, "sent", BankFixture.HUB_CURRENCY));
+                user.addTransaction(TransactionFactory.onlinePayment(t, "Card payment",
+                        1.5 + t, "FoodShop"));
+            }
+        }
+
+        OutputBuilder outputBuilder = new OutputBuilder();
+        outputBuilder.printUsers(bankUsers, HISTORY);
+        for (User user : bankUsers) {
+            outputBuilder.printTransactions(user, HISTORY + 1);
+        }
+        output = outputBuilder.getOutput();
+    }
+
+    /**
+     * Encodes the whole output.
+     *
+     * @param written the size counters
+     * @return the number of bytes written
+     * @throws IOException if the format is not on the classpath
+     */
+    @Benchmark
+    public long writeAll(final Written written) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        outputFormat.writeAll(out, output);
+        written.bytes += out.count;
+        written.writes++;
+        return out.count;
+    }
+}
@@ -0,0 +1,82 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.BankCommandsSuite.PayOnline;
+import org.poo.OutputBuilder;
+import org.poo.fileio.CommandInput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PayOnline#execute()} for a successful card payment, with and without
+ * a currency conversion and with and without a cashback-eligible commerciant (ClothesShop
+ * uses "nrOfTransactions", which the cashback rules do not recognise).
+ *
+ * Run it with the GC profiler to check the allocation budget: {@code gc.alloc.rate.norm}
+ * should only cover the command object and the ledger records (the OnlinePayment, the
+ * CommerciantTransaction and the amortized growth of the lists holding them).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PayOnlineBenchmark {
+    private static final int USERS = 1_000;
+
+    @Param({"false", "true"})
+    private boolean conversion;
+
+    @Param({"false", "true"})
+    private boolean cashback;
+
+    private BankFixture fixture;
+    private OutputBuilder outputBuilder;
+    private CommandInput[] commands;
+    private int next;
+
+    /**
+     * Rebuilds the bank every iteration so the ledgers do not grow across the whole run.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        String accountCurrency = conversion ? BankFixture.currency(1) : BankFixture.HUB_CURRENCY;
+        fixture = BankFixture.create(USERS, new String[] {accountCurrency}, 4);
+        outputBuilder = new OutputBuilder();
+
+        commands = new CommandInput[USERS];
+        for (int i = 0; i < USERS; i++) {
+            CommandInput command = BankFixture.command("payOnline", i + 1);
+            command.setEmail(fixture.getUsers().get(i).getEmail());
+            command.setCardNumber(fixture.cardNumber(i));
+            command.setAmount(10.0);
+            command.setCurrency(conversion ? BankFixture.currency(2) : BankFixture.HUB_CURRENCY);
+            command.setDescription("benchmark");
+            command.setCommerciant(cashback ? "FoodShop" : "ClothesShop");
+            commands[i] = command;
+        }
+        next = 0;
+    }
+
+    /**
+     * Executes one online payment, cycling through the users.
+     */
+    @Benchmark
+    public void payOnline() {
+        CommandInput command = commands[next];
+        next = next + 1 == commands.length ? 0 : next + 1;
+        new PayOnline(fixture.getUsers(), command, outputBuilder).execute();
+    }
+}
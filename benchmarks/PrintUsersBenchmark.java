@@ -0,0 +1,54 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.OutputBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OutputBuilder#printUsers(java.util.List, int)}, which rebuilds the
+ * whole users, accounts and cards tree on every call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class PrintUsersBenchmark {
+    @Param({"1000", "100000"})
+    private int users;
+
+    private BankFixture fixture;
+    private int timestamp;
+
+    /**
+     * Builds a bank where every user has one account with one card.
+     */
+    @Setup
+    public void setUp() {
+        fixture = BankFixture.create(users, new String[] {BankFixture.HUB_CURRENCY}, 4);
+    }
+
+    /**
+     * Prints all users into a fresh output.
+     *
+     * @return the output holding the snapshot
+     */
+    @Benchmark
+    public OutputBuilder printUsers() {
+        OutputBuilder outputBuilder = new OutputBuilder();
+        outputBuilder.printUsers(fixture.getUsers(), ++timestamp);
+        return outputBuilder;
+    }
+}
@@ -0,0 +1,99 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.AccountsSuite.Account;
+import org.poo.BankCommandsSuite.Report;
+import org.poo.BankCommandsSuite.SpendingsReport;
+import org.poo.BankTeller;
+import org.poo.CommerciantsSuite.CommerciantTransaction;
+import org.poo.OutputBuilder;
+import org.poo.TransactionsSuite.TransactionFactory;
+import org.poo.User;
+import org.poo.fileio.CommandInput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Report} and {@link SpendingsReport} over one account with a long
+ * payment history. The history is appended directly instead of replaying payOnline
+ * commands, so the setup cost stays linear in its length.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReportBenchmark {
+    private static final String[] COMMERCIANTS = {"FoodShop", "ClothesShop", "TechShop"};
+
+    @Param({"1000", "100000"})
+    private int history;
+
+    private BankFixture fixture;
+    private CommandInput reportCommand;
+    private CommandInput spendingsCommand;
+
+    /**
+     * Builds one user whose account has the requested number of card payments.
+     */
+    @Setup
+    public void setUp() {
+        fixture = BankFixture.create(1, new String[] {BankFixture.HUB_CURRENCY}, 4);
+        User user = fixture.getUsers().get(0);
+        Account account = fixture.account(0);
+
+        for (int i = 0; i < history; i++) {
+            String commerciant = COMMERCIANTS[i % COMMERCIANTS.length];
+            double amount = 1.0 + i % 50;
+            user.addTransaction(TransactionFactory.onlinePayment(
+                    i, "Card payment", amount, commerciant));
+            BankTeller.addTransaction(new CommerciantTransaction(account.getIBAN(),
+                    amount, i, "Card payment", commerciant));
+        }
+
+        reportCommand = BankFixture.command("report", history + 1);
+        reportCommand.setAccount(account.getIBAN());
+        reportCommand.setStartTimestamp(0);
+        reportCommand.setEndTimestamp(history);
+
+        spendingsCommand = BankFixture.command("spendingsReport", history + 1);
+        spendingsCommand.setAccount(account.getIBAN());
+        spendingsCommand.setStartTimestamp(0);
+        spendingsCommand.setEndTimestamp(history);
+    }
+
+    /**
+     * Builds a full-range report into a fresh output.
+     *
+     * @return the output holding the report
+     */
+    @Benchmark
+    public OutputBuilder report() {
+        OutputBuilder outputBuilder = new OutputBuilder();
+        new Report(fixture.getUsers(), reportCommand, outputBuilder).execute();
+        return outputBuilder;
+    }
+
+    /**
+     * Builds a full-range spendings report into a fresh output.
+     *
+     * @return the output holding the report
+     */
+    @Benchmark
+    public OutputBuilder spendingsReport() {
+        OutputBuilder outputBuilder = new OutputBuilder();
+        new SpendingsReport(fixture.getUsers(), spendingsCommand, outputBuilder).execute();
+        return outputBuilder;
+    }
+}
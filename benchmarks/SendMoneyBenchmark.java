@@ -0,0 +1,76 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.BankCommandsSuite.SendMoney;
+import org.poo.OutputBuilder;
+import org.poo.fileio.CommandInput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SendMoney#execute()} between accounts of different users. The
+ * receiver lookup scans every user, so the bank size is a parameter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SendMoneyBenchmark {
+    @Param({"100", "10000"})
+    private int users;
+
+    @Param({"false", "true"})
+    private boolean conversion;
+
+    private BankFixture fixture;
+    private OutputBuilder outputBuilder;
+    private CommandInput[] commands;
+    private int next;
+
+    /**
+     * Builds the bank and one transfer per user towards the next user.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        String[] currencies = conversion
+                ? new String[] {BankFixture.currency(1), BankFixture.currency(2)}
+                : new String[] {BankFixture.HUB_CURRENCY};
+        fixture = BankFixture.create(users, currencies, 4);
+        outputBuilder = new OutputBuilder();
+
+        commands = new CommandInput[users];
+        for (int i = 0; i < users; i++) {
+            CommandInput command = BankFixture.command("sendMoney", i + 1);
+            command.setEmail(fixture.getUsers().get(i).getEmail());
+            command.setAccount(fixture.account(i).getIBAN());
+            command.setReceiver(fixture.account((i + 1) % users).getIBAN());
+            command.setAmount(5.0);
+            command.setDescription("benchmark");
+            commands[i] = command;
+        }
+        next = 0;
+    }
+
+    /**
+     * Executes one transfer, cycling through the senders.
+     */
+    @Benchmark
+    public void sendMoney() {
+        CommandInput command = commands[next];
+        next = next + 1 == commands.length ? 0 : next + 1;
+        new SendMoney(fixture.getUsers(), command, outputBuilder).execute();
+    }
+}
@@ -0,0 +1,333 @@
+package org.poo.benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.poo.CashbackSuite.CommerciantCategory;
+import org.poo.utils.Utils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes synthetic {@code ObjectInput} files for scaling tests. The same seed and
+ * parameters always produce the same file.
+ *
+ * The file is written with a streaming generator and the "commands" array comes
+ * last, after users, exchange rates and commerciants, so both writing and reading
+ * it can be done without holding the commands in memory. Only the IBANs and card
+ * numbers are kept, which makes 10^7-command workloads cheap to produce.
+ *
+ * IBANs and card numbers are predicted by replaying {@link Utils} in the order the
+ * generated addAccount and createCard commands will run, the same way
+ * {@code BankTeller.startDay} does after {@link Utils#resetRandom()}.
+ *
+ * Usage: {@code WorkloadGenerator out=workload.json seed=42 users=1000 accounts=2
+ * merchants=3 currencies=6 commands=10000000 mix=payOnline=70,sendMoney=10,report=5}
+ */
+public final class WorkloadGenerator {
+    private static final String[] CURRENCY_CODES = {
+            "RON", "EUR", "USD", "GBP", "CHF", "JPY", "CAD", "AUD", "SEK", "NOK"
+    };
+    private static final String[] STRATEGIES = {"spendingThreshold", "nrOfTransactions"};
+    private static final double SETUP_FUNDS = 1_000_000.0;
+    private static final int CENTS = 100;
+
+    private final long seed;
+    private final int userCount;
+    private final int accountsPerUser;
+    private final int merchantsPerCategory;
+    private final int currencyCount;
+    private final long commandCount;
+    private final CommandMix mix;
+
+    private Random random;
+    private String[] currencies;
+    private String[] emails;
+    private final List<String> merchants = new ArrayList<>();
+    private final List<String> classicAccounts = new ArrayList<>();
+    private final List<String> classicOwners = new ArrayList<>();
+    private final List<String> cards = new ArrayList<>();
+    private final List<String> savingsAccounts = new ArrayList<>();
+    private final Map<String, String> currencyByAccount = new HashMap<>();
+    private int timestamp;
+
+    /**
+     * @param seed the seed of every random choice
+     * @param userCount the number of users (N)
+     * @param accountsPerUser the number of accounts per user (M); the first one is a
+     *                        classic account with a card, the others alternate between
+     *                        savings and classic
+     * @param merchantsPerCategory the number of commerciants of each category
+     * @param currencyCount the number of currencies; every pair gets a direct rate
+     * @param commandCount the number of mixed commands (K), on top of the setup commands
+     * @param mix the distribution of the mixed commands
+     */
+    public WorkloadGenerator(final long seed, final int userCount, final int accountsPerUser,
+                             final int merchantsPerCategory, final int currencyCount,
+                             final long commandCount, final CommandMix mix) {
+        if (userCount < 2 || accountsPerUser < 1 || merchantsPerCategory < 1
+                || currencyCount < 1) {
+            throw new IllegalArgumentException("A workload needs at least 2 users, "
+                    + "1 account per user, 1 merchant per category and 1 currency");
+        }
+        this.seed = seed;
+        this.userCount = userCount;
+        this.accountsPerUser = accountsPerUser;
+        this.merchantsPerCategory = merchantsPerCategory;
+        this.currencyCount = currencyCount;
+        this.commandCount = commandCount;
+        this.mix = mix;
+    }
+
+    /**
+     * Writes the workload as a single JSON object.
+     *
+     * @param out the destination; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void generate(final OutputStream out) throws IOException {
+        random = new Random(seed);
+        timestamp = 0;
+        merchants.clear();
+        classicAccounts.clear();
+        classicOwners.clear();
+        cards.clear();
+        savingsAccounts.clear();
+        currencyByAccount.clear();
+
+        Utils.resetRandom();
+        try (JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.writeStartObject();
+            writeUsers(json);
+            writeExchangeRates(json);
+            writeCommerciants(json);
+
+            json.writeArrayFieldStart("commands");
+            writeSetupCommands(json);
+            for (long i = 0; i < commandCount; i++) {
+                writeMixedCommand(json, mix.next(random));
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        } finally {
+            Utils.resetRandom();
+        }
+        out.flush();
+    }
+
+    private void writeUsers(final JsonGenerator json) throws IOException {
+        emails = new String[userCount];
+        json.writeArrayFieldStart("users");
+        for (int i = 0; i < userCount; i++) {
+            emails[i] = "user" + i + "@workload.poo";
+            json.writeStartObject();
+            json.writeStringField("firstName", "First" + i);
+            json.writeStringField("lastName", "Last" + i);
+            json.writeStringField("email", emails[i]);
+            json.writeStringField("birthDate", (1950 + random.nextInt(55)) + "-0"
+                    + (1 + random.nextInt(9)) + "-1" + random.nextInt(10));
+            json.writeStringField("occupation", random.nextInt(10) == 0
+                    ? "student" : "engineer");
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private void writeExchangeRates(final JsonGenerator json) throws IOException {
+        currencies = new String[currencyCount];
+        double[] valueInRon = new double[currencyCount];
+        for (int i = 0; i < currencyCount; i++) {
+            currencies[i] = i < CURRENCY_CODES.length ? CURRENCY_CODES[i] : "X" + i;
+            valueInRon[i] = i == 0 ? 1.0 : round(0.5 + random.nextDouble() * 4.5);
+        }
+
+        json.writeArrayFieldStart("exchangeRates");
+        for (int i = 0; i < currencyCount; i++) {
+            for (int j = i + 1; j < currencyCount; j++) {
+                json.writeStartObject();
+                json.writeStringField("from", currencies[j]);
+                json.writeStringField("to", currencies[i]);
+                json.writeNumberField("rate", valueInRon[j] / valueInRon[i]);
+                json.writeNumberField("timestamp", 0);
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private void writeCommerciants(final JsonGenerator json) throws IOException {
+        json.writeArrayFieldStart("commerciants");
+        int id = 0;
+        for (CommerciantCategory category : CommerciantCategory.values()) {
+            String type = category.name().charAt(0)
+                    + category.name().substring(1).toLowerCase();
+            for (int i = 0; i < merchantsPerCategory; i++) {
+                String name = type + "Shop" + i;
+                merchants.add(name);
+                json.writeStartObject();
+                json.writeStringField("commerciant", name);
+                json.writeNumberField("id", id);
+                json.writeStringField("account", "RO00WORK" + id);
+                json.writeStringField("type", type);
+                json.writeStringField("cashbackStrategy", STRATEGIES[i % STRATEGIES.length]);
+                json.writeEndObject();
+                id++;
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private void writeSetupCommands(final JsonGenerator json) throws IOException {
+        for (int user = 0; user < userCount; user++) {
+            for (int i = 0; i < accountsPerUser; i++) {
+                boolean savings = i % 2 == 1;
+                String currency = currencies[random.nextInt(currencyCount)];
+                String iban = Utils.generateIBAN();
+                currencyByAccount.put(iban, currency);
+
+                startCommand(json, "addAccount");
+                json.writeStringField("email", emails[user]);
+                json.writeStringField("currency", currency);
+                json.writeStringField("accountType", savings ? "savings" : "classic");
+                if (savings) {
+                    json.writeNumberField("interestRate", round(0.01 + random.nextDouble()
+                            * 0.04));
+                    savingsAccounts.add(iban);
+                }
+                json.writeEndObject();
+
+                startCommand(json, "addFunds");
+                json.writeStringField("account", iban);
+                json.writeStringField("email", emails[user]);
+                json.writeNumberField("amount", SETUP_FUNDS);
+                json.writeEndObject();
+
+                if (!savings) {
+                    classicAccounts.add(iban);
+                    classicOwners.add(emails[user]);
+                    cards.add(Utils.generateCardNumber());
+
+                    startCommand(json, "createCard");
+                    json.writeStringField("account", iban);
+                    json.writeStringField("email", emails[user]);
+                    json.writeEndObject();
+                }
+            }
+        }
+    }
+
+    private void writeMixedCommand(final JsonGenerator json, final String name)
+            throws IOException {
+        int classic = random.nextInt(classicAccounts.size());
+        String iban = classicAccounts.get(classic);
+        String email = classicOwners.get(classic);
+
+        startCommand(json, name);
+        switch (name) {
+            case "payOnline" -> {
+                json.writeStringField("cardNumber", cards.get(classic));
+                json.writeNumberField("amount", amount(1, 200));
+                json.writeStringField("currency", currencies[random.nextInt(currencyCount)]);
+                json.writeStringField("description", "workload purchase");
+                json.writeStringField("commerciant",
+                        merchants.get(random.nextInt(merchants.size())));
+                json.writeStringField("email", email);
+            }
+            case "sendMoney" -> {
+                int receiver = random.nextInt(classicAccounts.size());
+                json.writeStringField("account", iban);
+                json.writeNumberField("amount", amount(1, 100));
+                json.writeStringField("receiver", classicAccounts.get(receiver));
+                json.writeStringField("description", "workload transfer");
+                json.writeStringField("email", email);
+            }
+            case "addFunds" -> {
+                json.writeStringField("account", iban);
+                json.writeStringField("email", email);
+                json.writeNumberField("amount", amount(100, 10_000));
+            }
+            case "report", "spendingsReport" -> {
+                json.writeNumberField("startTimestamp", 0);
+                json.writeNumberField("endTimestamp", timestamp);
+                json.writeStringField("account", iban);
+            }
+            case "printTransactions" -> json.writeStringField("email", email);
+            case "addInterest", "changeInterestRate" -> {
+                json.writeStringField("account", savingsAccounts.isEmpty() ? iban
+                        : savingsAccounts.get(random.nextInt(savingsAccounts.size())));
+                if (name.equals("changeInterestRate")) {
+                    json.writeNumberField("interestRate", round(0.01 + random.nextDouble()
+                            * 0.04));
+                }
+            }
+            case "checkCardStatus" -> json.writeStringField("cardNumber", cards.get(classic));
+            case "cashWithdrawal" -> {
+                json.writeStringField("cardNumber", cards.get(classic));
+                json.writeNumberField("amount", amount(10, 500));
+                json.writeStringField("email", email);
+                json.writeStringField("location", "Bucharest");
+            }
+            case "setMinimumBalance" -> {
+                json.writeStringField("account", iban);
+                json.writeNumberField("amount", amount(0, 100));
+            }
+            case "printUsers", "addInterestAll" -> {
+            }
+            default -> throw new IllegalArgumentException("Unsupported command in mix: " + name);
+        }
+        json.writeEndObject();
+    }
+
+    private void startCommand(final JsonGenerator json, final String name) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("command", name);
+        json.writeNumberField("timestamp", ++timestamp);
+    }
+
+    private double amount(final int min, final int max) {
+        return round(min + random.nextDouble() * (max - min));
+    }
+
+    private static double round(final double value) {
+        return Math.round(value * CENTS) / (double) CENTS;
+    }
+
+    /**
+     * @param args {@code key=value} pairs: out, seed, users, accounts, merchants,
+     *             currencies, commands and mix
+     * @throws IOException if the output file cannot be written
+     */
+    public static void main(final String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("users", "1000")),
+                Integer.parseInt(options.getOrDefault("accounts", "2")),
+                Integer.parseInt(options.getOrDefault("merchants", "3")),
+                Integer.parseInt(options.getOrDefault("currencies", "6")),
+                Long.parseLong(options.getOrDefault("commands", "100000")),
+                CommandMix.parse(options.getOrDefault("mix", CommandMix.DEFAULT)));
+
+        try (OutputStream out = new BufferedOutputStream(
+                new FileOutputStream(options.getOrDefault("out", "workload.json")))) {
+            generator.generate(out);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.poo.fileio;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public final class AccountRowInput {
+    private String email;
+    private String accountType;
+    private String currency;
+    private Double interestRate;
+}
@@ -24,6 +24,9 @@ public final class CommandInput {
     private String splitPaymentType;
     private String type;
     private String location;
+    private String from;
+    private String to;
+    private String file;
     private int timestamp;
     private int startTimestamp;
     private int endTimestamp;
@@ -32,6 +35,8 @@ public final class CommandInput {
     private double depositLimit;
     private double amount;
     private double minBalance;
+    private double rate;
     private List<String> accounts;
     private List<Double> amountForUsers;
+    private List<AccountRowInput> accountRows;
 }
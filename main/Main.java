@@ -1,14 +1,18 @@
 package org.poo.main;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.BankTeller;
+import org.poo.OutputFormat;
+import org.poo.OutputWriter;
+import org.poo.FlightRecorderSuite.OutputSerializationEvent;
 import org.poo.checker.Checker;
 import org.poo.checker.CheckerConstants;
 import org.poo.fileio.ObjectInput;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -92,13 +96,31 @@ public final class Main {
          *
          */
 
+        OutputFormat.SELECTED.checkAvailable();
         BankTeller bankTeller = new BankTeller();
 
+        if (OutputWriter.ASYNC) {
+            OutputWriter writer = new OutputWriter(new File(filePath2), OutputFormat.SELECTED);
+            try {
+                bankTeller.streamOutput(writer);
+                bankTeller.startDay(inputData);
+            } finally {
+                writer.close();
+            }
+            return;
+        }
+
         bankTeller.startDay(inputData);
         ArrayNode output = bankTeller.getOutput();
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), output);
+        OutputSerializationEvent event = new OutputSerializationEvent();
+        event.begin();
+        OutputFormat.SELECTED.writeAll(new BufferedOutputStream(new FileOutputStream(filePath2)),
+                output);
+        if (event.shouldCommit()) {
+            event.set("write", output.size());
+            event.commit();
+        }
     }
 
     /**
@@ -0,0 +1,76 @@
+package org.poo.utils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A lookup table for names that the input compares with trim and equalsIgnoreCase,
+ * such as emails and commerciant names.
+ *
+ * Every value is stored under its normalized (trimmed, lower case) key and under its
+ * key exactly as given, so the common case, where a command spells the name the same
+ * way as the input that created it, is a single hash lookup that allocates nothing.
+ * Misses allocate nothing either, unless the key has to be normalized first.
+ * Like a linear scan, the first value put for a normalized key wins.
+ *
+ * @param <T> the indexed type
+ */
+public final class CaseInsensitiveIndex<T> {
+    private final Map<String, T> values = new HashMap<>();
+
+    /**
+     * Indexes a value, unless a value with the same normalized key is already indexed.
+     *
+     * @param key the key, e.g. an email
+     * @param value the value
+     */
+    public void put(final String key, final T value) {
+        if (values.putIfAbsent(normalize(key), value) == null) {
+            values.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Finds the value indexed under a key equal to the given one, ignoring case and
+     * surrounding whitespace.
+     *
+     * @param key the key to look up
+     * @return the value, or null if there is none
+     */
+    public T get(final String key) {
+        if (key == null) {
+            return null;
+        }
+        T value = values.get(key);
+        if (value == null && !isNormalized(key)) {
+            value = values.get(normalize(key));
+        }
+        return value;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    private static String normalize(final String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isNormalized(final String key) {
+        int length = key.length();
+        if (length > 0 && (key.charAt(0) <= ' ' || key.charAt(length - 1) <= ' ')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (Character.toLowerCase(c) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
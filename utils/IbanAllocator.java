@@ -0,0 +1,163 @@
+package org.poo.utils;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hands out unique IBANs with valid ISO 13616 (mod 97) check digits from a pool that is
+ * filled in the background.
+ *
+ * An IBAN is RO, two check digits, POOB and a 16 digit account number. The account
+ * number is its compact key: a producer thread draws one random long per IBAN from a
+ * seeded generator, keeps the keys issued so far in a {@link LongHashSet} to skip
+ * duplicates, computes the check digits and formats the IBAN, then queues it. Creating
+ * an account only takes the next IBAN from the queue, without any drawing, checking or
+ * string building. There is a single producer, so the IBANs come out in the same order
+ * for the same seed, however the threads are scheduled.
+ */
+public final class IbanAllocator {
+    public static final int DEFAULT_POOL_SIZE = 1 << 12;
+
+    private static final long ACCOUNT_BOUND = 10_000_000_000_000_000L;
+    private static final int ACCOUNT_DIGITS = 16;
+    private static final int MOD = 97;
+    private static final int CHECK_BASE = 98;
+    private static final int DECIMAL = 10;
+    private static final int LETTER_BASE = 10;
+    private static final String COUNTRY = "RO";
+    private static final String BANK = "POOB";
+
+    private final long seed;
+    private final int poolSize;
+    private BlockingQueue<String> pool;
+    private Thread producer;
+
+    /**
+     * Creates an allocator. The pool is filled from the first allocation on.
+     *
+     * @param seed the seed of the account numbers
+     * @param poolSize the number of IBANs kept ready
+     */
+    public IbanAllocator(final long seed, final int poolSize) {
+        this.seed = seed;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Takes the next IBAN from the pool, waiting for the producer only if the pool ran
+     * empty.
+     *
+     * @return a new IBAN
+     */
+    public synchronized String allocate() {
+        if (producer == null) {
+            start();
+        }
+        try {
+            return pool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an IBAN", e);
+        }
+    }
+
+    /**
+     * Stops the producer and drops the pool, so the next allocation starts over from
+     * the seed.
+     */
+    public synchronized void reset() {
+        if (producer == null) {
+            return;
+        }
+        producer.interrupt();
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        producer = null;
+        pool = null;
+    }
+
+    private void start() {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(poolSize);
+        pool = queue;
+        producer = new Thread(() -> produce(queue), "iban-allocator");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce(final BlockingQueue<String> queue) {
+        Random random = new Random(seed);
+        LongHashSet issued = new LongHashSet();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long account = random.nextLong(ACCOUNT_BOUND);
+                if (issued.add(account)) {
+                    queue.put(format(account));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Formats the IBAN of an account number, with its check digits.
+     *
+     * @param account the 16 digit account number
+     * @return the IBAN
+     */
+    public static String format(final long account) {
+        int check = checkDigits(account);
+        char[] iban = new char[COUNTRY.length() + 2 + BANK.length() + ACCOUNT_DIGITS];
+        int position = 0;
+        for (int i = 0; i < COUNTRY.length(); i++) {
+            iban[position++] = COUNTRY.charAt(i);
+        }
+        iban[position++] = (char) ('0' + check / DECIMAL);
+        iban[position++] = (char) ('0' + check % DECIMAL);
+        for (int i = 0; i < BANK.length(); i++) {
+            iban[position++] = BANK.charAt(i);
+        }
+        long rest = account;
+        for (int i = iban.length - 1; i >= position; i--) {
+            iban[i] = (char) ('0' + rest % DECIMAL);
+            rest /= DECIMAL;
+        }
+        return new String(iban);
+    }
+
+    /**
+     * Computes the ISO 13616 check digits of an account number: the bank code and
+     * account number followed by the country code and 00, with letters as 10 to 35,
+     * taken mod 97 and subtracted from 98.
+     *
+     * @param account the 16 digit account number
+     * @return the check digits, from 2 to 98
+     */
+    public static int checkDigits(final long account) {
+        int remainder = 0;
+        for (int i = 0; i < BANK.length(); i++) {
+            remainder = appendLetter(remainder, BANK.charAt(i));
+        }
+        long divisor = ACCOUNT_BOUND / DECIMAL;
+        for (int i = 0; i < ACCOUNT_DIGITS; i++) {
+            remainder = (int) ((remainder * DECIMAL + account / divisor % DECIMAL) % MOD);
+            divisor /= DECIMAL;
+        }
+        for (int i = 0; i < COUNTRY.length(); i++) {
+            remainder = appendLetter(remainder, COUNTRY.charAt(i));
+        }
+        remainder = remainder * DECIMAL % MOD;
+        remainder = remainder * DECIMAL % MOD;
+        return CHECK_BASE - remainder;
+    }
+
+    private static int appendLetter(final int remainder, final char letter) {
+        int value = letter - 'A' + LETTER_BASE;
+        int result = (remainder * DECIMAL + value / DECIMAL) % MOD;
+        return (result * DECIMAL + value % DECIMAL) % MOD;
+    }
+}
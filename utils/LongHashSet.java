@@ -0,0 +1,96 @@
+package org.poo.utils;
+
+/**
+ * A set of primitive longs with open addressing and linear probing, so adding a value
+ * allocates nothing (apart from the occasional resize) and stores 8 bytes per slot
+ * instead of a boxed Long and a hash map entry.
+ */
+public final class LongHashSet {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+    private static final long EMPTY = 0L;
+
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int shift = Long.SIZE - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    private int size;
+    private boolean containsEmpty;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return false if the value was already in the set
+     */
+    public boolean add(final long value) {
+        if (value == EMPTY) {
+            boolean added = !containsEmpty;
+            containsEmpty = true;
+            return added;
+        }
+        int mask = slots.length - 1;
+        int index = (int) ((value * PHI) >>> shift);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        if (++size > slots.length / 2) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * @param value the value
+     * @return true if the value is in the set
+     */
+    public boolean contains(final long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int mask = slots.length - 1;
+        int index = (int) ((value * PHI) >>> shift);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of values in the set
+     */
+    public int size() {
+        return containsEmpty ? size + 1 : size;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        slots = new long[INITIAL_CAPACITY];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+        size = 0;
+        containsEmpty = false;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        shift--;
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = (int) ((value * PHI) >>> shift);
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+}
@@ -14,41 +14,127 @@ public final class Utils {
     private static final String RO_STR = "RO";
     private static final String POO_STR = "POOB";
 
+    /**
+     * With {@code -Dpoo.cards.luhn=true} card numbers are 15 random digits taken from a
+     * single random long plus a Luhn check digit, instead of 16 independent digits.
+     * Both are deterministic for the seed; the default keeps the numbers the checker
+     * expects.
+     */
+    public static final boolean LUHN_CARDS = Boolean.getBoolean("poo.cards.luhn");
+    private static final long LUHN_BODY_BOUND = 1_000_000_000_000_000L;
+    private static final int LUHN_DOUBLED_MAX = 9;
+
+    /**
+     * With {@code -Dpoo.iban.pool=true} IBANs come from an {@link IbanAllocator}: unique,
+     * with valid mod 97 check digits and generated in the background. By default they
+     * are drawn digit by digit, as the checker expects, and only checked for duplicates.
+     */
+    public static final boolean IBAN_POOL = Boolean.getBoolean("poo.iban.pool");
+    private static final long IBAN_ACCOUNT_BOUND = 10_000_000_000_000_000L;
 
+    private static final IbanAllocator IBAN_ALLOCATOR = new IbanAllocator(IBAN_SEED,
+            Integer.getInteger("poo.iban.pool.size", IbanAllocator.DEFAULT_POOL_SIZE));
+    private static final LongHashSet ISSUED_IBANS = new LongHashSet();
     private static Random ibanRandom = new Random(IBAN_SEED);
     private static Random cardRandom = new Random(CARD_SEED);
+    private static final LongHashSet ISSUED_CARD_NUMBERS = new LongHashSet();
 
     /**
      * Utility method for generating an IBAN code.
+     * An IBAN is never issued twice since the last {@link #resetRandom()}: its digits are
+     * kept as a numeric key in a primitive set and an IBAN that was already issued is
+     * drawn again.
      *
      * @return the IBAN as String
      */
     public static String generateIBAN() {
-        StringBuilder sb = new StringBuilder(RO_STR);
-        for (int i = 0; i < RO_STR.length(); i++) {
-            sb.append(ibanRandom.nextInt(DIGIT_BOUND));
+        if (IBAN_POOL) {
+            return IBAN_ALLOCATOR.allocate();
         }
 
-        sb.append(POO_STR);
-        for (int i = 0; i < DIGIT_GENERATION; i++) {
-            sb.append(ibanRandom.nextInt(DIGIT_BOUND));
-        }
+        int check;
+        long account;
+        do {
+            check = 0;
+            for (int i = 0; i < RO_STR.length(); i++) {
+                check = check * DIGIT_BOUND + ibanRandom.nextInt(DIGIT_BOUND);
+            }
+            account = 0;
+            for (int i = 0; i < DIGIT_GENERATION; i++) {
+                account = account * DIGIT_BOUND + ibanRandom.nextInt(DIGIT_BOUND);
+            }
+        } while (!ISSUED_IBANS.add(check * IBAN_ACCOUNT_BOUND + account));
 
-        return sb.toString();
+        char[] iban = new char[RO_STR.length() * 2 + POO_STR.length() + DIGIT_GENERATION];
+        RO_STR.getChars(0, RO_STR.length(), iban, 0);
+        iban[RO_STR.length()] = (char) ('0' + check / DIGIT_BOUND);
+        iban[RO_STR.length() + 1] = (char) ('0' + check % DIGIT_BOUND);
+        POO_STR.getChars(0, POO_STR.length(), iban, RO_STR.length() * 2);
+        for (int i = iban.length - 1; i >= iban.length - DIGIT_GENERATION; i--) {
+            iban[i] = (char) ('0' + account % DIGIT_BOUND);
+            account /= DIGIT_BOUND;
+        }
+        return new String(iban);
     }
 
     /**
      * Utility method for generating a card number.
+     * A number is never issued twice since the last {@link #resetRandom()}: the issued
+     * numbers are kept in a primitive set and a number that was already issued is
+     * drawn again. Collisions are so rare that the default numbers are the same as
+     * without the check.
      *
      * @return the card number as String
      */
     public static String generateCardNumber() {
-        StringBuilder sb = new StringBuilder();
+        long number;
+        do {
+            number = LUHN_CARDS ? nextLuhnCardNumber() : nextCardNumber();
+        } while (!ISSUED_CARD_NUMBERS.add(number));
+
+        char[] digits = new char[DIGIT_GENERATION];
+        for (int i = DIGIT_GENERATION - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + number % DIGIT_BOUND);
+            number /= DIGIT_BOUND;
+        }
+        return new String(digits);
+    }
+
+    private static long nextCardNumber() {
+        long number = 0;
         for (int i = 0; i < DIGIT_GENERATION; i++) {
-            sb.append(cardRandom.nextInt(DIGIT_BOUND));
+            number = number * DIGIT_BOUND + cardRandom.nextInt(DIGIT_BOUND);
         }
+        return number;
+    }
+
+    private static long nextLuhnCardNumber() {
+        long body = cardRandom.nextLong(LUHN_BODY_BOUND);
+        return body * DIGIT_BOUND + luhnCheckDigit(body);
+    }
 
-        return sb.toString();
+    /**
+     * Computes the Luhn check digit of a number, i.e. the digit that appended to it
+     * makes the Luhn sum a multiple of 10.
+     *
+     * @param body the number without its check digit
+     * @return the check digit
+     */
+    public static int luhnCheckDigit(final long body) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = body; rest > 0; rest /= DIGIT_BOUND) {
+            int digit = (int) (rest % DIGIT_BOUND);
+            if (doubled) {
+                digit *= 2;
+                if (digit > LUHN_DOUBLED_MAX) {
+                    digit -= LUHN_DOUBLED_MAX;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (DIGIT_BOUND - sum % DIGIT_BOUND) % DIGIT_BOUND;
     }
 
     /**
@@ -57,5 +143,8 @@ public final class Utils {
     public static void resetRandom() {
         ibanRandom = new Random(IBAN_SEED);
         cardRandom = new Random(CARD_SEED);
+        ISSUED_IBANS.clear();
+        IBAN_ALLOCATOR.reset();
+        ISSUED_CARD_NUMBERS.clear();
     }
 }